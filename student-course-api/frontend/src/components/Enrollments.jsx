@@ -1,6 +1,7 @@
 import React, { useEffect, useState, useCallback } from 'react'
 import { get, post, put } from '../api/fetcher'
 import Notification from './Notification'
+import { loadSummaries } from './EnrollmentsTable'
 
 export default function Enrollments({ auth }){
     const [students, setStudents] = useState([])
@@ -18,7 +19,7 @@ export default function Enrollments({ auth }){
             const [s, su, e] = await Promise.all([
                 get('/students', auth),
                 get('/subjects', auth),
-                get('/enrollments', auth)
+                loadSummaries(auth)
             ])
             setStudents(s); setSubjects(su); setEnrolls(e)
         } catch(err){
@@ -105,7 +106,7 @@ export default function Enrollments({ auth }){
             <h3>Matrículas</h3>
             <ul>
                 {enrolls.length === 0 ? <li>Nenhuma matrícula</li> : enrolls.map(en => (
-                    <li key={en.id}>#{en.id} - {en.student?.nome} / {en.subject?.nome} - nota: {en.grade ?? '—'}</li>
+                    <li key={en.id}>#{en.id} - {en.studentNome} / {en.subjectNome} - nota: {en.grade ?? '—'}</li>
                 ))}
             </ul>
 
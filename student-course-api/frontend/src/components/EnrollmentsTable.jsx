@@ -8,6 +8,21 @@ import CloseIcon from '@mui/icons-material/Close'
 import { get, del, put } from '../api/fetcher'
 import EnrollmentForm from './EnrollmentForm'
 
+// /enrollments devolve só os ids; /enrollments/summary já traz nome do aluno e nome/código da
+// disciplina, mas é paginado (máximo 500 por página), então lê página a página até a última
+const SUMMARY_PAGE_SIZE = 500
+
+export async function loadSummaries(auth){
+    const all = []
+    for (let page = 0; ; page++) {
+        const data = await get(`/enrollments/summary?page=${page}&size=${SUMMARY_PAGE_SIZE}`, auth)
+        if (!Array.isArray(data)) break
+        all.push(...data)
+        if (data.length < SUMMARY_PAGE_SIZE) break
+    }
+    return all
+}
+
 export default function EnrollmentsTable({ auth, onRefresh = () => {} }) {
     const [list, setList] = useState([])
     const [openEnroll, setOpenEnroll] = useState(false)
@@ -17,8 +32,8 @@ export default function EnrollmentsTable({ auth, onRefresh = () => {} }) {
 
     async function load(){
         try {
-            const data = await get('/enrollments', auth)
-            setList(Array.isArray(data) ? data : [])
+            const data = await loadSummaries(auth)
+            setList(data)
             console.log('[EnrollmentsTable] loaded', Array.isArray(data) ? data.length : typeof data, data)
         } catch(err) {
             console.error('Failed to load enrollments', err)
@@ -86,10 +101,10 @@ export default function EnrollmentsTable({ auth, onRefresh = () => {} }) {
                 <TableBody>
                     {list.map(e => (
                         <TableRow key={e.id}>
-                            <TableCell>{e.student?.nome ?? e.studentName ?? e.student_nome ?? '—'}</TableCell>
+                            <TableCell>{e.studentNome ?? '—'}</TableCell>
                             <TableCell>
-                                {e.subject?.nome ?? e.subjectName ?? e.subject_nome ?? '—'}
-                                {e.subject?.codigo ? ` (${e.subject.codigo})` : ''}
+                                {e.subjectNome ?? '—'}
+                                {e.subjectCodigo ? ` (${e.subjectCodigo})` : ''}
                             </TableCell>
                             <TableCell>
                                 {gradeEditingId === e.id ? (
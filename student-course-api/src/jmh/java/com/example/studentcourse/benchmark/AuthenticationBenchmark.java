@@ -0,0 +1,94 @@
+package com.example.studentcourse.benchmark;
+
+import com.example.studentcourse.service.AccessTokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost: verifying a bearer token (HMAC only, see
+ * AccessTokenService) against the HTTP Basic path (header decode + DaoAuthenticationProvider
+ * with an in-memory user lookup, standing in for the cached ProfessorUserDetailsService),
+ * with the current NoOp encoder and with BCrypt (strength 10) as a real deployment would use.
+ * Allocations per operation come from the gc profiler (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private static final String USERNAME = "prof.benchmark";
+    private static final String PASSWORD = "s3cret-password";
+
+    private AccessTokenService accessTokenService;
+    private String bearerHeader;
+    private String basicHeader;
+    private DaoAuthenticationProvider noOpProvider;
+    private DaoAuthenticationProvider bcryptProvider;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        accessTokenService = new AccessTokenService("benchmark-secret-benchmark-secret", Duration.ofHours(1));
+        bearerHeader = "Bearer " + accessTokenService.issue(USERNAME).value();
+        basicHeader = "Basic " + Base64.getEncoder().encodeToString((USERNAME + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+        noOpProvider = provider(NoOpPasswordEncoder.getInstance());
+        bcryptProvider = provider(new BCryptPasswordEncoder());
+    }
+
+    @SuppressWarnings("deprecation")
+    private static DaoAuthenticationProvider provider(PasswordEncoder encoder) {
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(
+                User.withUsername(USERNAME).password(encoder.encode(PASSWORD)).roles("PROFESSOR").build());
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(users);
+        provider.setPasswordEncoder(encoder);
+        return provider;
+    }
+
+    @Benchmark
+    public Optional<String> bearerToken() {
+        return accessTokenService.verify(bearerHeader.substring("Bearer ".length()).trim());
+    }
+
+    @Benchmark
+    public Authentication basicNoOp() {
+        return noOpProvider.authenticate(decodeBasic(basicHeader));
+    }
+
+    @Benchmark
+    public Authentication basicBcrypt() {
+        return bcryptProvider.authenticate(decodeBasic(basicHeader));
+    }
+
+    // same steps as BasicAuthenticationConverter: base64 decode and split at the first ':'
+    private static UsernamePasswordAuthenticationToken decodeBasic(String header) {
+        String decoded = new String(Base64.getDecoder().decode(header.substring("Basic ".length())), StandardCharsets.UTF_8);
+        int colon = decoded.indexOf(':');
+        return UsernamePasswordAuthenticationToken.unauthenticated(decoded.substring(0, colon), decoded.substring(colon + 1));
+    }
+}
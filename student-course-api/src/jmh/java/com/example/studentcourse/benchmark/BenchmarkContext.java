@@ -0,0 +1,106 @@
+package com.example.studentcourse.benchmark;
+
+import com.example.studentcourse.StudentCourseApiApplication;
+import com.example.studentcourse.model.Enrollment;
+import com.example.studentcourse.model.Student;
+import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.repository.EnrollmentRepository;
+import com.example.studentcourse.repository.StudentRepository;
+import com.example.studentcourse.repository.SubjectRepository;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boots the application against its own in-memory H2 database (SQL logging off, random
+ * port) and seeds it through the repositories, so benchmarks exercise the real services,
+ * JPA mappings and Jackson configuration.
+ */
+final class BenchmarkContext {
+
+    private static final int SEED_CHUNK = 1000;
+
+    private BenchmarkContext() {}
+
+    /**
+     * Boots the application on {@code jdbc:h2:mem:<databaseName>}; {@code extraArgs} are
+     * appended as further command-line arguments (later ones win).
+     */
+    static ConfigurableApplicationContext start(String databaseName, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--app.cache.subjects.warm-up=false"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(StudentCourseApiApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                // command-line arguments take precedence over application.properties
+                .run(args.toArray(String[]::new));
+    }
+
+    /**
+     * Inserts {@code students} students, {@code subjects} subjects and
+     * {@code enrollmentsPerStudent} enrollments per student (grades 0..10 in steps of 0.5,
+     * roughly 10% still without a grade), in chunked transactions.
+     */
+    static Dataset seed(ConfigurableApplicationContext context, int students, int subjects, int enrollmentsPerStudent) {
+        StudentRepository studentRepository = context.getBean(StudentRepository.class);
+        SubjectRepository subjectRepository = context.getBean(SubjectRepository.class);
+        EnrollmentRepository enrollmentRepository = context.getBean(EnrollmentRepository.class);
+        TransactionTemplate tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        Random random = new Random(42);
+
+        List<Subject> savedSubjects = tx.execute(status -> {
+            List<Subject> list = new ArrayList<>(subjects);
+            for (int i = 0; i < subjects; i++) {
+                list.add(new Subject("Disciplina " + i, "BEN" + i, i % 3 == 0 ? 6.0 : null));
+            }
+            return subjectRepository.saveAll(list);
+        });
+        List<Long> subjectIds = savedSubjects.stream().map(Subject::getId).toList();
+
+        List<Long> studentIds = new ArrayList<>(students);
+        List<Long> enrollmentIds = new ArrayList<>(students * enrollmentsPerStudent);
+        int perStudent = Math.min(enrollmentsPerStudent, subjects);
+        for (int start = 0; start < students; start += SEED_CHUNK) {
+            int from = start;
+            int to = Math.min(start + SEED_CHUNK, students);
+            tx.executeWithoutResult(status -> {
+                List<Student> chunk = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    chunk.add(new Student("Aluno " + i, String.format("%011d", i), "aluno" + i + "@example.com",
+                            "2199999" + String.format("%04d", i % 10000), "Rua " + i));
+                }
+                List<Student> savedStudents = studentRepository.saveAll(chunk);
+                List<Enrollment> enrollments = new ArrayList<>(savedStudents.size() * perStudent);
+                for (Student student : savedStudents) {
+                    studentIds.add(student.getId());
+                    int offset = random.nextInt(subjects);
+                    for (int k = 0; k < perStudent; k++) {
+                        Enrollment enrollment = new Enrollment(student, savedSubjects.get((offset + k) % subjects));
+                        if (random.nextInt(10) != 0) {
+                            enrollment.setGrade(random.nextInt(21) / 2.0);
+                        }
+                        enrollments.add(enrollment);
+                    }
+                }
+                enrollmentRepository.saveAll(enrollments).forEach(e -> enrollmentIds.add(e.getId()));
+            });
+        }
+        return new Dataset(List.copyOf(studentIds), subjectIds, List.copyOf(enrollmentIds));
+    }
+
+    record Dataset(List<Long> studentIds, List<Long> subjectIds, List<Long> enrollmentIds) {}
+}
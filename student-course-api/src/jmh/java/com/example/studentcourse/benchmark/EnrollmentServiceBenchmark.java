@@ -0,0 +1,108 @@
+package com.example.studentcourse.benchmark;
+
+import com.example.studentcourse.dto.EnrollmentSummaryDTO;
+import com.example.studentcourse.dto.StudentListItemDTO;
+import com.example.studentcourse.model.Enrollment;
+import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.service.EnrollmentService;
+import com.example.studentcourse.service.SubjectService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EnrollmentService hot paths: enroll, setGrade, the approved/failed queries and the
+ * paginated summary listing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrollmentServiceBenchmark {
+
+    @Param("10000")
+    int students;
+
+    @Param("50")
+    int subjects;
+
+    @Param("5")
+    int enrollmentsPerStudent;
+
+    private ConfigurableApplicationContext context;
+    private EnrollmentService enrollmentService;
+    private SubjectService subjectService;
+    private BenchmarkContext.Dataset data;
+
+    private long enrollCounter;
+    private Long enrollSubjectId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("enrollmentbench");
+        enrollmentService = context.getBean(EnrollmentService.class);
+        subjectService = context.getBean(SubjectService.class);
+        data = BenchmarkContext.seed(context, students, subjects, enrollmentsPerStudent);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // each call enrolls a student not yet in the current subject; a new subject is opened once all are in
+    @Benchmark
+    @Threads(1)
+    public Enrollment enroll() {
+        int index = (int) (enrollCounter++ % data.studentIds().size());
+        if (index == 0) {
+            enrollSubjectId = subjectService.create(new Subject("Benchmark " + enrollCounter, "ENR" + enrollCounter, null)).getId();
+        }
+        return enrollmentService.enroll(data.studentIds().get(index), enrollSubjectId);
+    }
+
+    @Benchmark
+    public Enrollment setGrade() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long enrollmentId = data.enrollmentIds().get(random.nextInt(data.enrollmentIds().size()));
+        return enrollmentService.setGrade(enrollmentId, random.nextInt(21) / 2.0);
+    }
+
+    @Benchmark
+    public List<StudentListItemDTO> approvedBySubject() {
+        return enrollmentService.getApprovedBySubject(randomSubjectId(), 0, EnrollmentService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<StudentListItemDTO> failedBySubject() {
+        return enrollmentService.getFailedBySubject(randomSubjectId(), 0, EnrollmentService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<EnrollmentSummaryDTO> summaries() {
+        int pages = Math.max(1, data.enrollmentIds().size() / EnrollmentService.DEFAULT_PAGE_SIZE);
+        return enrollmentService.findSummaries(ThreadLocalRandom.current().nextInt(pages), EnrollmentService.DEFAULT_PAGE_SIZE);
+    }
+
+    private Long randomSubjectId() {
+        return data.subjectIds().get(ThreadLocalRandom.current().nextInt(data.subjectIds().size()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.studentcourse.benchmark;
+
+import com.example.studentcourse.exception.ConflictException;
+import com.example.studentcourse.service.EnrollmentService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent grading under optimistic locking: 16 threads call setGrade on a hot set of
+ * {@code hotEnrollments} rows. A small hot set forces version conflicts and exercises the
+ * automatic retry; the aux counters report how many calls still ended in a 409-style conflict.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class GradeContentionBenchmark {
+
+    @Param({"1", "16", "1024"})
+    int hotEnrollments;
+
+    private ConfigurableApplicationContext context;
+    private EnrollmentService enrollmentService;
+    private List<Long> hotIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("contentionbench");
+        enrollmentService = context.getBean(EnrollmentService.class);
+        BenchmarkContext.Dataset data = BenchmarkContext.seed(context, 2000, 10, 1);
+        hotIds = data.enrollmentIds().subList(0, Math.min(hotEnrollments, data.enrollmentIds().size()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long updated;
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            updated = 0;
+            conflicts = 0;
+        }
+    }
+
+    @Benchmark
+    public void setGrade(Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long enrollmentId = hotIds.get(random.nextInt(hotIds.size()));
+        try {
+            enrollmentService.setGrade(enrollmentId, random.nextInt(21) / 2.0);
+            outcomes.updated++;
+        } catch (ConflictException ex) {
+            outcomes.conflicts++;
+        }
+    }
+}
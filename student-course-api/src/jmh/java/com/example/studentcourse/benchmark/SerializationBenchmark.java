@@ -0,0 +1,116 @@
+package com.example.studentcourse.benchmark;
+
+import com.example.studentcourse.dto.EnrollmentResponseDTO;
+import com.example.studentcourse.dto.EnrollmentSummaryDTO;
+import com.example.studentcourse.dto.StudentListItemDTO;
+import com.example.studentcourse.dto.StudentResponseDTO;
+import com.example.studentcourse.model.Enrollment;
+import com.example.studentcourse.model.Student;
+import com.example.studentcourse.repository.StudentRepository;
+import com.example.studentcourse.service.EnrollmentService;
+import com.example.studentcourse.service.StudentService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of list responses with the application's ObjectMapper: what the
+ * controllers used to return (entities, Enrollment with Student and Subject nested) versus
+ * the response DTOs they return now. Lists are loaded once; only writing the JSON is
+ * measured. The payload size of each variant is printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"50", "500"})
+    int listSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private List<Enrollment> enrollments;
+    private List<EnrollmentResponseDTO> enrollmentResponses;
+    private List<EnrollmentSummaryDTO> summaries;
+    private List<Student> students;
+    private List<StudentResponseDTO> studentResponses;
+    private List<StudentListItemDTO> studentListItems;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        context = BenchmarkContext.start("serializationbench");
+        objectMapper = context.getBean(ObjectMapper.class);
+        BenchmarkContext.seed(context, 2000, 20, 5);
+        // associations are LAZY now: fetch the graph the old entity responses serialized
+        enrollments = context.getBean(EntityManager.class)
+                .createQuery("select e from Enrollment e join fetch e.student join fetch e.subject order by e.id", Enrollment.class)
+                .setMaxResults(listSize)
+                .getResultList();
+        enrollmentResponses = enrollments.stream().map(EnrollmentResponseDTO::of).toList();
+        summaries = context.getBean(EnrollmentService.class).findSummaries(0, listSize);
+        students = context.getBean(StudentRepository.class).findAll(PageRequest.of(0, listSize)).getContent();
+        studentResponses = students.stream().map(StudentResponseDTO::of).toList();
+        studentListItems = context.getBean(StudentService.class).findPage(null, listSize).items;
+
+        System.out.printf("%npayload bytes (listSize=%d): enrollmentEntities=%d enrollmentResponses=%d enrollmentSummaries=%d "
+                        + "studentEntities=%d studentResponses=%d studentListItems=%d%n",
+                listSize, enrollmentEntities().length, enrollmentResponses().length, enrollmentSummaries().length,
+                studentEntities().length, studentResponses().length, studentListItems().length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] enrollmentEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(enrollments);
+    }
+
+    @Benchmark
+    public byte[] enrollmentResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(enrollmentResponses);
+    }
+
+    @Benchmark
+    public byte[] enrollmentSummaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+
+    @Benchmark
+    public byte[] studentEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] studentResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(studentResponses);
+    }
+
+    @Benchmark
+    public byte[] studentListItems() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(studentListItems);
+    }
+}
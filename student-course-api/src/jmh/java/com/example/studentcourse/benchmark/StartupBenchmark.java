@@ -0,0 +1,59 @@
+package com.example.studentcourse.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application boot time against an already existing schema, comparing the Flyway
+ * migrations plus {@code ddl-auto=validate} setup with the former {@code ddl-auto=update}.
+ * The schema is created once per trial; every measured invocation is a full
+ * context start on top of it, closed afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(3)
+public class StartupBenchmark {
+
+    private static final String DATABASE = "startupbench";
+
+    @Param({"flyway-validate", "ddl-auto-update"})
+    String schema;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void createSchema() {
+        // DB_CLOSE_DELAY=-1 keeps the in-memory database (and its schema) after the context closes
+        BenchmarkContext.start(DATABASE).close();
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext boot() {
+        context = "ddl-auto-update".equals(schema)
+                ? BenchmarkContext.start(DATABASE, "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update")
+                : BenchmarkContext.start(DATABASE);
+        return context;
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.studentcourse.benchmark;
+
+import com.example.studentcourse.dto.KeysetPage;
+import com.example.studentcourse.dto.StudentListItemDTO;
+import com.example.studentcourse.model.Student;
+import com.example.studentcourse.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StudentService lookups: by id and one keyset page starting at a random id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+    @Param("10000")
+    int students;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private BenchmarkContext.Dataset data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("studentbench");
+        studentService = context.getBean(StudentService.class);
+        data = BenchmarkContext.seed(context, students, 10, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Student findById() {
+        return studentService.findById(randomStudentId());
+    }
+
+    @Benchmark
+    public KeysetPage<StudentListItemDTO> findPage() {
+        return studentService.findPage(randomStudentId(), KeysetPage.DEFAULT_LIMIT);
+    }
+
+    private Long randomStudentId() {
+        return data.studentIds().get(ThreadLocalRandom.current().nextInt(data.studentIds().size()));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.studentcourse.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds, 3 significant digits) and error count for one endpoint.
+ */
+final class EndpointStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void record(long elapsedNanos, boolean success) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), MAX_TRACKABLE_MICROS);
+        latencies.recordValue(Math.max(micros, 1));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    void reset() {
+        latencies.reset();
+        errors.reset();
+    }
+
+    long count() {
+        return latencies.getTotalCount();
+    }
+
+    Map<String, Object> summary(Duration measured) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoint", name);
+        summary.put("requests", count());
+        summary.put("errors", errors.sum());
+        summary.put("throughputPerSecond", round(count() / (measured.toMillis() / 1000.0)));
+        summary.put("p50Ms", millis(latencies.getValueAtPercentile(50)));
+        summary.put("p95Ms", millis(latencies.getValueAtPercentile(95)));
+        summary.put("p99Ms", millis(latencies.getValueAtPercentile(99)));
+        summary.put("p999Ms", millis(latencies.getValueAtPercentile(99.9)));
+        summary.put("maxMs", millis(latencies.getMaxValue()));
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
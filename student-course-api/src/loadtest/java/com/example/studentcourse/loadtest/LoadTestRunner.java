@@ -0,0 +1,337 @@
+package com.example.studentcourse.loadtest;
+
+import com.example.studentcourse.StudentCourseApiApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP load test for the API. Boots the application on an in-memory H2 database and a random
+ * port, seeds professors, subjects, students, enrollments and grades through the REST API, then
+ * runs {@code loadtest.concurrency} workers against a weighted mix of requests covering every
+ * controller for {@code loadtest.duration} (after a {@code loadtest.warmup} that is not recorded).
+ * <p>
+ * Requests authenticate with HTTP Basic ({@code loadtest.auth=basic}) or with bearer tokens from
+ * {@code /api/auth/login} ({@code loadtest.auth=token}). {@code loadtest.virtualThreads} is passed to
+ * the server as {@code spring.threads.virtual.enabled} and {@code loadtest.rateLimit} as
+ * {@code app.rate-limit.enabled} (off by default, so the run measures capacity rather than the limits), and {@code loadtest.endpoints} (a regex over
+ * names such as {@code "PUT /api/enrollments/{id}/grade"}) restricts the mix. Throughput and p50/p95/p99/p999 latency per
+ * endpoint are printed and written as JSON to {@code loadtest.output}.
+ */
+public final class LoadTestRunner {
+
+    private static final int PAGE_SIZE = 50;
+    private static final String JSON = "application/json";
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final List<String> authHeaders = new ArrayList<>();
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Long> subjectIds = new ArrayList<>();
+    private final List<Long> enrollmentIds = new ArrayList<>();
+    // students created during the run and not enrolled yet
+    private final ConcurrentLinkedQueue<Long> newStudents = new ConcurrentLinkedQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Pattern endpoints;
+    private final List<Operation> operations = new ArrayList<>();
+    private int totalWeight;
+
+    private LoadTestRunner(ObjectMapper objectMapper, int port, Pattern endpoints) {
+        this.objectMapper = objectMapper;
+        this.endpoints = endpoints;
+        this.baseUrl = "http://localhost:" + port;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "30s"));
+        Duration warmup = DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s"));
+        int students = Integer.getInteger("loadtest.students", 2000);
+        int subjects = Integer.getInteger("loadtest.subjects", 20);
+        int professors = Integer.getInteger("loadtest.professors", 4);
+        String auth = System.getProperty("loadtest.auth", "basic");
+        boolean virtualThreads = Boolean.parseBoolean(System.getProperty("loadtest.virtualThreads", "false"));
+        boolean rateLimit = Boolean.parseBoolean(System.getProperty("loadtest.rateLimit", "false"));
+        Pattern endpoints = Pattern.compile(System.getProperty("loadtest.endpoints", ".*"));
+        File output = new File(System.getProperty("loadtest.output", "target/loadtest-result.json"));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(StudentCourseApiApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--app.rate-limit.enabled=" + rateLimit);
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadTestRunner runner = new LoadTestRunner(context.getBean(ObjectMapper.class), port, endpoints);
+            runner.seed(professors, subjects, students, "token".equalsIgnoreCase(auth));
+            runner.defineOperations();
+            if (runner.operations.isEmpty()) {
+                throw new IllegalArgumentException("No endpoint matches loadtest.endpoints=" + endpoints);
+            }
+
+            runner.run(concurrency, warmup);
+            runner.operations.forEach(op -> op.stats.reset());
+            Instant start = Instant.now();
+            runner.run(concurrency, duration);
+            Duration measured = Duration.between(start, Instant.now());
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("concurrency", concurrency);
+            report.put("durationSeconds", measured.toSeconds());
+            report.put("auth", auth);
+            report.put("virtualThreads", virtualThreads);
+            report.put("rateLimit", rateLimit);
+            report.put("endpointFilter", endpoints.pattern());
+            report.put("students", students);
+            report.put("subjects", subjects);
+            report.put("endpoints", runner.operations.stream().map(op -> op.stats.summary(measured)).toList());
+            printReport(report);
+            output.getAbsoluteFile().getParentFile().mkdirs();
+            runner.objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, report);
+            System.out.println("Results written to " + output.getAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+
+    private void seed(int professors, int subjects, int students, boolean useTokens) throws Exception {
+        for (int i = 0; i < professors; i++) {
+            String username = "loadtest" + i;
+            String password = "secret" + i;
+            expectOk(send(request("/api/professors", null).POST(json(Map.of("username", username, "password", password, "nome", "Professor " + i)))));
+            if (useTokens) {
+                JsonNode token = expectOk(send(request("/api/auth/login", null).POST(json(Map.of("username", username, "password", password)))));
+                authHeaders.add("Bearer " + token.get("accessToken").asText());
+            } else {
+                authHeaders.add("Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        String auth = authHeaders.get(0);
+        for (int i = 0; i < subjects; i++) {
+            JsonNode subject = expectOk(send(request("/api/subjects", auth).POST(json(Map.of(
+                    "nome", "Disciplina " + i, "codigo", "LT" + i, "passingGrade", i % 2 == 0 ? 7.0 : 6.0)))));
+            subjectIds.add(subject.get("id").asLong());
+        }
+        for (int i = 0; i < students; i++) {
+            studentIds.add(createStudent(auth));
+        }
+        // each subject gets a slice of the students through /batch and their grades through a CSV upload
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (Long subjectId : subjectIds) {
+            List<Long> batch = studentIds.stream().filter(id -> random.nextInt(4) == 0).limit(1000).toList();
+            if (batch.isEmpty()) {
+                continue;
+            }
+            JsonNode results = expectOk(send(request("/api/enrollments/batch", auth).POST(json(Map.of("subjectId", subjectId, "studentIds", batch)))));
+            StringBuilder csv = new StringBuilder("enrollmentId,grade\n");
+            for (JsonNode result : results) {
+                if (result.hasNonNull("enrollmentId")) {
+                    long enrollmentId = result.get("enrollmentId").asLong();
+                    enrollmentIds.add(enrollmentId);
+                    csv.append(enrollmentId).append(',').append(random.nextInt(21) / 2.0).append('\n');
+                }
+            }
+            expectOk(send(request("/api/enrollments/subject/" + subjectId + "/grades", auth)
+                    .setHeader("Content-Type", "text/csv")
+                    .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))));
+        }
+        System.out.printf("Seeded %d professors, %d subjects, %d students, %d enrollments%n",
+                professors, subjectIds.size(), studentIds.size(), enrollmentIds.size());
+    }
+
+    private long createStudent(String auth) throws Exception {
+        long n = sequence.incrementAndGet();
+        JsonNode student = expectOk(send(request("/api/students", auth).POST(json(Map.of(
+                "nome", "Aluno " + n, "cpf", String.format("%011d", n), "email", "aluno" + n + "@example.com",
+                "telefone", "21999990000", "endereco", "Rua " + n)))));
+        return student.get("id").asLong();
+    }
+
+    private void defineOperations() {
+        operation("GET /api/students?limit", 10, auth -> request("/api/students?limit=" + PAGE_SIZE + "&after=" + (randomOf(studentIds) - 1), auth).GET());
+        operation("GET /api/students/{id}", 15, auth -> request("/api/students/" + randomOf(studentIds), auth).GET());
+        operation("GET /api/students/{id}/transcript", 5, auth -> request("/api/students/" + randomOf(studentIds) + "/transcript", auth).GET());
+        operation("GET /api/students/search", 5, auth -> request("/api/students/search?q=aluno%20" + ThreadLocalRandom.current().nextInt(1, 1000) + "&size=" + PAGE_SIZE, auth).GET());
+        operation("POST /api/students", 3, auth -> {
+            long n = sequence.incrementAndGet();
+            return request("/api/students", auth).POST(json(Map.of("nome", "Aluno " + n, "cpf", String.format("%011d", n),
+                    "email", "aluno" + n + "@example.com", "telefone", "21999990000", "endereco", "Rua " + n)));
+        });
+        operation("GET /api/subjects", 5, auth -> request("/api/subjects", auth).GET());
+        operation("GET /api/subjects/{id}", 10, auth -> request("/api/subjects/" + randomOf(subjectIds), auth).GET());
+        operation("GET /api/subjects/{id}/stats", 5, auth -> request("/api/subjects/" + randomOf(subjectIds) + "/stats", auth).GET());
+        operation("GET /api/subjects/search", 5, auth -> request("/api/subjects/search?q=lt" + ThreadLocalRandom.current().nextInt(1, 100) + "&size=" + PAGE_SIZE, auth).GET());
+        operation("POST /api/enrollments", 3, auth -> {
+            Long studentId = newStudents.poll();
+            return request("/api/enrollments", auth).POST(json(Map.of(
+                    "studentId", studentId != null ? studentId : randomOf(studentIds), "subjectId", randomOf(subjectIds))));
+        });
+        operation("PUT /api/enrollments/{id}/grade", 10, auth -> request("/api/enrollments/" + randomOf(enrollmentIds) + "/grade", auth)
+                .PUT(json(Map.of("grade", ThreadLocalRandom.current().nextInt(21) / 2.0))));
+        operation("GET /api/enrollments/summary", 8, auth -> request("/api/enrollments/summary?page="
+                + ThreadLocalRandom.current().nextInt(Math.max(1, enrollmentIds.size() / PAGE_SIZE)) + "&size=" + PAGE_SIZE, auth).GET());
+        operation("GET /api/enrollments/subject/{id}/approved", 8, auth -> request("/api/enrollments/subject/" + randomOf(subjectIds) + "/approved", auth).GET());
+        operation("GET /api/enrollments/subject/{id}/failed", 8, auth -> request("/api/enrollments/subject/" + randomOf(subjectIds) + "/failed", auth).GET());
+        operation("POST /api/auth/login", 2, auth -> {
+            int i = ThreadLocalRandom.current().nextInt(authHeaders.size());
+            return request("/api/auth/login", null).POST(json(Map.of("username", "loadtest" + i, "password", "secret" + i)));
+        });
+        operation("POST /api/professors", 1, auth -> {
+            long n = sequence.incrementAndGet();
+            return request("/api/professors", null).POST(json(Map.of("username", "extra" + n, "password", "secret", "nome", "Professor " + n)));
+        });
+    }
+
+    private void operation(String name, int weight, Function<String, HttpRequest.Builder> request) {
+        if (!endpoints.matcher(name).find()) {
+            return;
+        }
+        operations.add(new Operation(new EndpointStats(name), weight, request));
+        totalWeight += weight;
+    }
+
+    private void run(int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            String auth = authHeaders.get(w % authHeaders.size());
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    execute(pick(), auth);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+    }
+
+    private void execute(Operation operation, String auth) {
+        HttpRequest request = operation.request.apply(auth).build();
+        long start = System.nanoTime();
+        boolean success;
+        HttpResponse<byte[]> response = null;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            success = response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            success = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        operation.stats.record(System.nanoTime() - start, success);
+        if (success && operation.stats.name().equals("POST /api/students")) {
+            rememberNewStudent(response.body());
+        }
+    }
+
+    private void rememberNewStudent(byte[] body) {
+        try {
+            newStudents.add(objectMapper.readTree(body).get("id").asLong());
+        } catch (IOException ignored) {
+            // only feeds POST /api/enrollments, which falls back to an existing student
+        }
+    }
+
+    private Operation pick() {
+        int r = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            r -= operation.weight;
+            if (r < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private HttpRequest.Builder request(String path, String auth) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", JSON)
+                .header("Content-Type", JSON);
+        if (auth != null) {
+            builder.header("Authorization", auth);
+        }
+        return builder;
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private JsonNode expectOk(HttpResponse<byte[]> response) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding failed: " + response.request().method() + " " + response.uri()
+                    + " -> " + response.statusCode() + " " + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static Long randomOf(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printReport(Map<String, Object> report) {
+        System.out.printf("%nconcurrency=%s duration=%ss auth=%s virtualThreads=%s rateLimit=%s%n",
+                report.get("concurrency"), report.get("durationSeconds"), report.get("auth"), report.get("virtualThreads"),
+                report.get("rateLimit"));
+        System.out.printf("%-44s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map<String, Object> row : (List<Map<String, Object>>) report.get("endpoints")) {
+            System.out.printf("%-44s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                    row.get("endpoint"), row.get("requests"), row.get("errors"), row.get("throughputPerSecond"),
+                    row.get("p50Ms"), row.get("p95Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs"));
+        }
+    }
+
+    private record Operation(EndpointStats stats, int weight, Function<String, HttpRequest.Builder> request) {}
+}
@@ -1,10 +1,11 @@
 package com.example.studentcourse;
 
+import com.example.studentcourse.repository.NaturalIdJpaRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
-@EnableJpaRepositories(basePackages = "com.example.studentcourse.repository")
+@EnableJpaRepositories(basePackages = "com.example.studentcourse.repository", repositoryBaseClass = NaturalIdJpaRepository.class)
 @SpringBootApplication
 public class StudentCourseApiApplication {
 
@@ -0,0 +1,71 @@
+package com.example.studentcourse.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limite global de requisições simultâneas ajustado pela latência observada (AIMD):
+ * cada resposta dentro do alvo com o limite em uso soma 1, e uma resposta acima do alvo
+ * multiplica o limite por backoffRatio (no máximo uma redução por janela de latency-target,
+ * para uma rajada de respostas lentas não derrubar o limite direto para o mínimo).
+ * Acima do limite a requisição é recusada na hora, em vez de esperar conexão no pool.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecrease;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid concurrency limit settings: need 1 <= min <= max and 0 < backoff < 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(Math.clamp(initialLimit, minLimit, maxLimit));
+        this.lastDecrease = new AtomicLong(System.nanoTime() - latencyTargetNanos);
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // devolve a vaga; latencyNanos < 0 = sem amostra (resposta assíncrona, ex.: /stream)
+    void release(long latencyNanos, long nowNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (latencyNanos < 0) {
+            return;
+        }
+        if (latencyNanos > latencyTargetNanos) {
+            long last = lastDecrease.get();
+            if (nowNanos - last >= latencyTargetNanos && lastDecrease.compareAndSet(last, nowNanos)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+            }
+        } else if (inFlightBefore * 2 >= limit.get()) {
+            // só cresce quando o limite está sendo usado; ocioso, não há o que medir
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    int limit() {
+        return limit.get();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.studentcourse.admission;
+
+import com.example.studentcourse.config.RequestCompletion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controle de admissão em /api/**, antes do Spring Security e do DatabaseBulkheadFilter:
+ * <ul>
+ *     <li>token bucket por IP, cobrado antes da autenticação — tentativas com credencial
+ *     errada (BCrypt no Basic) também gastam o balde; quando a autenticação dá certo o
+ *     PrincipalRateLimitFilter devolve o token do IP e cobra do professor, então professores
+ *     atrás do mesmo NAT não dividem o balde;</li>
+ *     <li>limite global de concorrência adaptado pela latência (AdaptiveConcurrencyLimiter).</li>
+ * </ul>
+ * Quem excede recebe 429 com Retry-After, contado em app.admission.rejected{reason}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    // balde de IP cobrado nesta requisição; o PrincipalRateLimitFilter devolve o token
+    static final String IP_BUCKET_ATTRIBUTE = AdmissionControlFilter.class.getName() + ".ipBucket";
+
+    // balde ocioso por mais que isso já estaria cheio; sai do cache e volta cheio se precisar
+    private static final Duration BUCKET_IDLE_EXPIRY = Duration.ofMinutes(10);
+    private static final long MAX_BUCKETS = 100_000;
+
+    private final double ipRate;
+    private final int ipBurst;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Counter rejectedByIp;
+    private final Counter rejectedByConcurrency;
+
+    public AdmissionControlFilter(@Value("${app.rate-limit.ip.permits-per-second:10}") double ipRate,
+                                  @Value("${app.rate-limit.ip.burst:50}") int ipBurst,
+                                  @Value("${app.rate-limit.concurrency.initial-limit:20}") int initialLimit,
+                                  @Value("${app.rate-limit.concurrency.min-limit:4}") int minLimit,
+                                  @Value("${app.rate-limit.concurrency.max-limit:200}") int maxLimit,
+                                  @Value("${app.rate-limit.concurrency.latency-target:500ms}") Duration latencyTarget,
+                                  @Value("${app.rate-limit.concurrency.backoff-ratio:0.9}") double backoffRatio,
+                                  MeterRegistry meterRegistry) {
+        this.ipRate = ipRate;
+        this.ipBurst = ipBurst;
+        this.ipBuckets = newBucketCache();
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyTarget.toNanos(), backoffRatio);
+
+        Gauge.builder("app.admission.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive limit of concurrent /api requests")
+                .register(meterRegistry);
+        Gauge.builder("app.admission.in-flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Admitted /api requests currently running")
+                .register(meterRegistry);
+        Gauge.builder("app.admission.buckets", ipBuckets, Cache::estimatedSize)
+                .description("Active rate-limit buckets")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        this.rejectedByIp = rejectedCounter(meterRegistry, "ip_rate");
+        this.rejectedByConcurrency = rejectedCounter(meterRegistry, "concurrency");
+    }
+
+    static Cache<String, TokenBucket> newBucketCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(MAX_BUCKETS)
+                .expireAfterAccess(BUCKET_IDLE_EXPIRY)
+                .build();
+    }
+
+    static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("app.admission.rejected")
+                .description("Requests rejected with 429 by admission control")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    static boolean isApiRequest(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/api/") && !"OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !isApiRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+        TokenBucket ipBucket = ipBuckets.get(request.getRemoteAddr(), key -> new TokenBucket(ipRate, ipBurst, now));
+        long waitNanos = ipBucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            rejectedByIp.increment();
+            reject(response, waitNanos);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            ipBucket.refund(now);
+            rejectedByConcurrency.increment();
+            reject(response, TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+        request.setAttribute(IP_BUCKET_ATTRIBUTE, ipBucket);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // assíncrono (export/stream): libera só no fim da resposta, sem amostra de latência
+            boolean async = request.isAsyncStarted();
+            long end = System.nanoTime();
+            RequestCompletion.whenComplete(request, () -> concurrencyLimiter.release(async ? -1 : end - now, System.nanoTime()));
+        }
+    }
+
+    static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"Too many requests, try again later ( Muitas requisições, tente novamente mais tarde )\"}");
+    }
+}
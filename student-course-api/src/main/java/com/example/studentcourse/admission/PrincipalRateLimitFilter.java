@@ -0,0 +1,75 @@
+package com.example.studentcourse.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Segunda etapa do controle de admissão, logo depois do Spring Security: requisição autenticada
+ * devolve o token cobrado do IP pelo AdmissionControlFilter e passa a gastar o balde do professor.
+ * Anônimas seguem só com o balde do IP.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+public class PrincipalRateLimitFilter extends OncePerRequestFilter {
+
+    private final double principalRate;
+    private final int principalBurst;
+    private final Cache<String, TokenBucket> principalBuckets;
+    private final Counter rejectedByPrincipal;
+
+    public PrincipalRateLimitFilter(@Value("${app.rate-limit.principal.permits-per-second:20}") double principalRate,
+                                    @Value("${app.rate-limit.principal.burst:100}") int principalBurst,
+                                    MeterRegistry meterRegistry) {
+        this.principalRate = principalRate;
+        this.principalBurst = principalBurst;
+        this.principalBuckets = AdmissionControlFilter.newBucketCache();
+        Gauge.builder("app.admission.buckets", principalBuckets, Cache::estimatedSize)
+                .description("Active rate-limit buckets")
+                .tag("key", "principal")
+                .register(meterRegistry);
+        this.rejectedByPrincipal = AdmissionControlFilter.rejectedCounter(meterRegistry, "principal_rate");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !AdmissionControlFilter.isApiRequest(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            long now = System.nanoTime();
+            if (request.getAttribute(AdmissionControlFilter.IP_BUCKET_ATTRIBUTE) instanceof TokenBucket ipBucket) {
+                ipBucket.refund(now);
+            }
+            long waitNanos = principalBuckets.get(authentication.getName(), key -> new TokenBucket(principalRate, principalBurst, now))
+                    .tryAcquire(now);
+            if (waitNanos > 0) {
+                rejectedByPrincipal.increment();
+                AdmissionControlFilter.reject(response, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
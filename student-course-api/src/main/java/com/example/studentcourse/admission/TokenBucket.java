@@ -0,0 +1,60 @@
+package com.example.studentcourse.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sem locks no formato GCRA: em vez de contar tokens guarda um único long, o
+ * instante teórico em que o balde estaria cheio de novo. Cada requisição empurra esse instante
+ * um intervalo (1 / taxa) para frente; se ele passar de "agora + burst intervalos", o balde
+ * está vazio. Uma CAS por requisição, sem thread de reposição.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and a burst of at least 1");
+        }
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Consome um token. Devolve 0 quando a requisição entra, ou quantos nanos faltam
+     * para o próximo token (o balde não é alterado nesse caso).
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            // comparação por diferença: System.nanoTime pode dar a volta
+            long next = (current - nowNanos < 0 ? nowNanos : current) + intervalNanos;
+            long excess = next - nowNanos - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Devolve um token consumido por tryAcquire (a requisição passou a ser cobrada em outro
+     * balde). Com o balde já cheio não faz nada, então nunca passa do burst.
+     */
+    void refund(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            if (current - nowNanos <= 0) {
+                return;
+            }
+            if (theoreticalArrival.compareAndSet(current, current - intervalNanos)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.studentcourse.audit;
+
+import com.example.studentcourse.model.Enrollment;
+import com.example.studentcourse.model.Student;
+import com.example.studentcourse.model.Subject;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Captura as escritas em Student, Subject e Enrollment quando o Hibernate executa o SQL
+ * e só entrega ao AuditLog no afterCommit: rollback não gera evento e a transação não
+ * espera pela gravação da auditoria. Criado pelo Hibernate via SpringBeanContainer.
+ */
+public class AuditEntityListener {
+
+    private static final String SYSTEM_USER = "system";
+
+    private final ObjectProvider<AuditLog> auditLog;
+
+    public AuditEntityListener(ObjectProvider<AuditLog> auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @PostPersist
+    void created(Object entity) {
+        record(entity, AuditEvent.Action.CREATE);
+    }
+
+    @PostUpdate
+    void updated(Object entity) {
+        if (entity instanceof Enrollment enrollment && !Objects.equals(enrollment.getGrade(), enrollment.getGradeAtLoad())) {
+            record(entity, AuditEvent.Action.GRADE);
+        } else {
+            record(entity, AuditEvent.Action.UPDATE);
+        }
+    }
+
+    @PostRemove
+    void removed(Object entity) {
+        record(entity, AuditEvent.Action.DELETE);
+    }
+
+    private void record(Object entity, AuditEvent.Action action) {
+        AuditLog target = auditLog.getIfAvailable();
+        if (target == null) {
+            return; // contexto sem auditoria (ex.: testes de slice JPA)
+        }
+        AuditEvent event = toEvent(entity, action);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            target.publish(event);
+            return;
+        }
+        pendingEvents(target).add(event);
+    }
+
+    // uma lista por transação, guardada na própria sincronização: um REQUIRES_NEW suspende as
+    // sincronizações da transação externa, então só enxerga (e publica) os seus eventos
+    private static List<AuditEvent> pendingEvents(AuditLog target) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingEvents pending) {
+                return pending.events;
+            }
+        }
+        PendingEvents pending = new PendingEvents(target);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending.events;
+    }
+
+    // publicada de uma vez no commit; rollback descarta a lista junto com a sincronização
+    private static final class PendingEvents implements TransactionSynchronization {
+
+        private final AuditLog target;
+        private final List<AuditEvent> events = new ArrayList<>();
+
+        PendingEvents(AuditLog target) {
+            this.target = target;
+        }
+
+        @Override
+        public void afterCommit() {
+            events.forEach(target::publish);
+        }
+    }
+
+    private static AuditEvent toEvent(Object entity, AuditEvent.Action action) {
+        Instant now = Instant.now();
+        String username = currentUsername();
+        if (entity instanceof Enrollment enrollment) {
+            String details = "student=" + enrollment.getStudent().getId() + ",subject=" + enrollment.getSubject().getId()
+                    + (action == AuditEvent.Action.GRADE
+                    ? ",grade=" + enrollment.getGradeAtLoad() + "->" + enrollment.getGrade()
+                    : ",grade=" + enrollment.getGrade());
+            return new AuditEvent(now, username, action, "enrollment", enrollment.getId(), details);
+        }
+        if (entity instanceof Student student) {
+            return new AuditEvent(now, username, action, "student", student.getId(), "cpf=" + student.getCpf());
+        }
+        if (entity instanceof Subject subject) {
+            return new AuditEvent(now, username, action, "subject", subject.getId(), "codigo=" + subject.getCodigo());
+        }
+        return new AuditEvent(now, username, action, entity.getClass().getSimpleName(), null, null);
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : SYSTEM_USER;
+    }
+}
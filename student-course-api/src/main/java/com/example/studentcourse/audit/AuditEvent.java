@@ -0,0 +1,12 @@
+package com.example.studentcourse.audit;
+
+import java.time.Instant;
+
+/**
+ * Uma escrita confirmada (commit) em aluno, disciplina ou matrícula.
+ */
+public record AuditEvent(Instant occurredAt, String username, Action action,
+                         String entityType, Long entityId, String details) {
+
+    public enum Action { CREATE, UPDATE, DELETE, GRADE }
+}
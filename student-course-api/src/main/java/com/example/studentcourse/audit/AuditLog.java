@@ -0,0 +1,184 @@
+package com.example.studentcourse.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Trilha de auditoria fora do caminho da requisição: os eventos entram no commit
+ * (AuditEntityListener) numa AuditRingBuffer e uma thread própria grava em audit_log
+ * com INSERTs de várias linhas. Fila cheia ou falha ao gravar descartam o evento
+ * (contado em app.audit.events.dropped) em vez de atrasar ou desfazer a escrita auditada.
+ */
+@Component
+public class AuditLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final String INSERT_PREFIX =
+            "insert into audit_log (occurred_at, username, action, entity_type, entity_id, details) values ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final String fullBatchInsert;
+
+    private final Counter published;
+    private final Counter written;
+    private final Counter droppedBufferFull;
+    private final Counter droppedWriteFailed;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLog(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                    @Value("${app.audit.buffer-capacity:8192}") int bufferCapacity,
+                    @Value("${app.audit.batch-size:500}") int batchSize,
+                    @Value("${app.audit.flush-interval:200ms}") Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new AuditRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.fullBatchInsert = insertSql(batchSize);
+
+        Gauge.builder("app.audit.buffer.pending", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting for the background writer")
+                .register(meterRegistry);
+        Gauge.builder("app.audit.buffer.utilization", buffer, b -> (double) b.size() / b.capacity())
+                .description("Fill ratio of the audit ring buffer (1.0 = new events are dropped)")
+                .register(meterRegistry);
+        this.published = Counter.builder("app.audit.events.published")
+                .description("Audit events accepted into the ring buffer")
+                .register(meterRegistry);
+        this.written = Counter.builder("app.audit.events.written")
+                .description("Audit events persisted to audit_log")
+                .register(meterRegistry);
+        this.droppedBufferFull = Counter.builder("app.audit.events.dropped")
+                .tag("reason", "buffer_full")
+                .description("Audit events discarded")
+                .register(meterRegistry);
+        this.droppedWriteFailed = Counter.builder("app.audit.events.dropped")
+                .tag("reason", "write_failed")
+                .description("Audit events discarded")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("app.audit.batch.size")
+                .description("Rows per audit_log insert")
+                .register(meterRegistry);
+    }
+
+    // chamado no afterCommit da transação que gravou; nunca bloqueia
+    public void publish(AuditEvent event) {
+        if (buffer.offer(event)) {
+            published.increment();
+        } else {
+            droppedBufferFull.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::runWriter);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // fase menor para depois do servidor web (que fica em DEFAULT_PHASE - 2048): as últimas
+    // requisições terminam antes do flush final, e o DataSource só fecha depois disso
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void runWriter() {
+        while (running) {
+            // lote cheio: grava de novo sem esperar, a fila está enchendo
+            if (flush() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+        // desligando: esvazia o que ainda estiver na fila
+        int flushed;
+        do {
+            flushed = flush();
+        } while (flushed > 0);
+    }
+
+    // drena até batch-size eventos e grava num único INSERT; devolve quantos saíram da fila
+    int flush() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        int drained = buffer.drainTo(batch, batchSize);
+        if (drained == 0) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.update(drained == batchSize ? fullBatchInsert : insertSql(drained), parameters(batch));
+            written.increment(drained);
+            batchSizes.record(drained);
+        } catch (DataAccessException ex) {
+            droppedWriteFailed.increment(drained);
+            log.warn("Dropped {} audit events: {}", drained, ex.getMostSpecificCause().getMessage());
+        } catch (RuntimeException ex) {
+            // qualquer outra falha também só descarta o lote: a thread de gravação não pode morrer
+            droppedWriteFailed.increment(drained);
+            log.error("Dropped {} audit events", drained, ex);
+        }
+        return drained;
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW.length() + 2)).append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW);
+        }
+        return sql.toString();
+    }
+
+    private static Object[] parameters(List<AuditEvent> batch) {
+        Object[] args = new Object[batch.size() * 6];
+        int i = 0;
+        for (AuditEvent event : batch) {
+            args[i++] = Timestamp.from(event.occurredAt());
+            args[i++] = event.username();
+            args[i++] = event.action().name();
+            args[i++] = event.entityType();
+            args[i++] = event.entityId();
+            args[i++] = event.details();
+        }
+        return args;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.studentcourse.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fila circular limitada sem locks (algoritmo de D. Vyukov): vários produtores
+ * (as threads das requisições, no commit) e um único consumidor (o AuditLog).
+ * Cada posição tem um número de sequência que diz se ela está livre para a volta
+ * atual do produtor ou já preenchida para o consumidor; cheia, offer devolve false
+ * em vez de bloquear quem está gravando.
+ */
+final class AuditRingBuffer<T> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    AuditRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("Ring buffer capacity must be at least 2");
+        }
+        // potência de 2 para trocar o módulo por máscara
+        this.capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(T item) {
+        long position = enqueuePosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, item);
+                    // publica o item para o consumidor
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                return false; // cheia: o consumidor ainda não liberou esta posição
+            } else {
+                position = enqueuePosition.get(); // outro produtor pegou a posição
+            }
+        }
+    }
+
+    // só a thread consumidora chama: move até max itens para target
+    int drainTo(List<T> target, int max) {
+        long position = dequeuePosition.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break; // vazia ou produtor ainda escrevendo esta posição
+            }
+            target.add(slots.get(index));
+            slots.lazySet(index, null);
+            // libera a posição para a próxima volta dos produtores
+            sequences.set(index, position + capacity);
+            position++;
+            drained++;
+        }
+        dequeuePosition.lazySet(position);
+        return drained;
+    }
+
+    int size() {
+        long size = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
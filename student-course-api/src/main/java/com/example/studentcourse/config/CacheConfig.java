@@ -0,0 +1,25 @@
+package com.example.studentcourse.config;
+
+import com.example.studentcourse.service.SubjectService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // caches do catálogo de disciplinas (SubjectService); hit/miss em /actuator/metrics/cache.gets
+    // TransactionAware: os evicts de create/update/delete só valem depois do commit
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.subjects.spec:maximumSize=10000,expireAfterWrite=30m}") String spec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(
+                SubjectService.SUBJECTS_CACHE, SubjectService.SUBJECTS_BY_CODIGO_CACHE, SubjectService.SUBJECT_CATALOG_CACHE);
+        caffeineCacheManager.setCacheSpecification(spec + ",recordStats");
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
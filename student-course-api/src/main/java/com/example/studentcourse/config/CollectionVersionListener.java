@@ -0,0 +1,116 @@
+package com.example.studentcourse.config;
+
+import com.example.studentcourse.model.CollectionVersion;
+import com.example.studentcourse.model.Enrollment;
+import com.example.studentcourse.model.Subject;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mantém a tabela collection_version: todo insert/update/delete de Subject ou Enrollment marca
+ * a listagem como alterada e, uma vez por transação, logo antes do commit (depois do último
+ * flush), um shard sorteado da versão é incrementado na mesma conexão. Rollback não incrementa.
+ * Com os shards, transações concorrentes só esperam uma pela outra se sortearem a mesma linha.
+ */
+@Component
+public class CollectionVersionListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String INCREMENT_SQL = "update collection_version set version = version + 1 where name = ? and shard = ?";
+
+    private static final Map<Class<?>, String> COLLECTIONS = Map.of(
+            Subject.class, CollectionVersion.SUBJECTS,
+            Enrollment.class, CollectionVersion.ENROLLMENTS);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    // listagens alteradas pela transação em curso de cada sessão; TreeSet: linhas travadas sempre na mesma ordem
+    private final Map<SessionImplementor, Set<String>> pending = new ConcurrentHashMap<>();
+
+    public CollectionVersionListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void changed(EventSource session, EntityPersister persister) {
+        String collection = COLLECTIONS.get(persister.getMappedClass());
+        if (collection == null) {
+            return;
+        }
+        pending.computeIfAbsent(session, this::registerProcesses).add(collection);
+    }
+
+    // o ActionQueue descarta os processos ao fim de cada transação: um par por transação
+    private Set<String> registerProcesses(SessionImplementor session) {
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::increment);
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, s) -> pending.remove(session));
+        return new TreeSet<>();
+    }
+
+    private void increment(SessionImplementor session) {
+        Set<String> collections = pending.remove(session);
+        if (collections == null || collections.isEmpty()) {
+            return;
+        }
+        int shard = ThreadLocalRandom.current().nextInt(CollectionVersion.SHARDS);
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INCREMENT_SQL)) {
+                for (String collection : collections) {
+                    statement.setString(1, collection);
+                    statement.setInt(2, shard);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.studentcourse.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Com virtual threads (spring.threads.virtual.enabled=true) o Tomcat não limita mais quantas
+ * requisições rodam ao mesmo tempo, e milhares delas ficariam paradas esperando conexão no Hikari.
+ * Este filtro deixa entrar em /api/** no máximo "permits" requisições (por padrão o tamanho do pool);
+ * as demais esperam na fila do semáforo até acquire-timeout e depois recebem 503. Requisições
+ * assíncronas só devolvem a permissão quando a resposta termina (RequestCompletion).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class DatabaseBulkheadFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Counter rejected;
+
+    public DatabaseBulkheadFilter(@Value("${app.concurrency.db-permits:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+                                  @Value("${app.concurrency.acquire-timeout:2s}") Duration acquireTimeout,
+                                  MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        Gauge.builder("app.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free request permits (sized to the connection pool)")
+                .register(meterRegistry);
+        Gauge.builder("app.bulkhead.queued", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a permit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.bulkhead.rejected")
+                .description("Requests rejected with 503 after waiting acquire-timeout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("{\"error\":\"Server busy, try again ( Servidor ocupado, tente novamente )\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // export/stream: a conexão segue em uso depois que a chain volta, até o fim da resposta
+            RequestCompletion.whenComplete(request, permits::release);
+        }
+    }
+}
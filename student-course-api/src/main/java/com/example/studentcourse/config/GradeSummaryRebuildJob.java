@@ -0,0 +1,31 @@
+package com.example.studentcourse.config;
+
+import com.example.studentcourse.dto.SummaryRebuildResultDTO;
+import com.example.studentcourse.service.SubjectGradeSummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conferência periódica dos contadores por disciplina contra enrollments
+ * (app.grade-summary.rebuild-cron; "-" desliga). Divergências são corrigidas e
+ * contadas em app.grade-summary.corrections.
+ */
+@Component
+public class GradeSummaryRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(GradeSummaryRebuildJob.class);
+
+    private final SubjectGradeSummaryService gradeSummaryService;
+
+    public GradeSummaryRebuildJob(SubjectGradeSummaryService gradeSummaryService) {
+        this.gradeSummaryService = gradeSummaryService;
+    }
+
+    @Scheduled(cron = "${app.grade-summary.rebuild-cron:0 0 3 * * *}")
+    public void rebuild() {
+        SummaryRebuildResultDTO result = gradeSummaryService.rebuildAll();
+        log.info("Grade summaries checked for {} subjects, {} corrected", result.subjects, result.corrected);
+    }
+}
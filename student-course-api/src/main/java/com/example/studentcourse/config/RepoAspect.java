@@ -1,22 +1,90 @@
 package com.example.studentcourse.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.stereotype.Component;
-import com.example.studentcourse.model.Subject;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede latência e quantidade de chamadas de todo método de repositório Spring Data,
+ * por repositório e por método (/actuator/metrics/app.repository.invocations).
+ * Os timers são criados na primeira chamada e reaproveitados depois, então o caminho
+ * quente é só um lookup no mapa e um record.
+ */
 @Aspect
 @Component
 public class RepoAspect {
 
-    @Around("execution(* org.springframework.data.repository.CrudRepository+.save(..)) && args(entity)")
-    public Object aroundSave(ProceedingJoinPoint pjp, Object entity) throws Throwable {
-        if (entity instanceof Subject) {
-            Subject s = (Subject) entity;
-            System.out.println("DEBUG RepoAspect: saving Subject -> nome=\"" + s.getNome() + "\" codigo=\"" + s.getCodigo() + "\"");
-            new Exception("StackTrace - who called save(Subject)").printStackTrace(System.out);
+    static final String METRIC_NAME = "app.repository.invocations";
+
+    private final MeterRegistry meterRegistry;
+    // chave: classe do proxy do repositório (uma por interface) -> método -> timers
+    private final Map<Class<?>, Map<Method, MethodTimers>> timers = new ConcurrentHashMap<>();
+
+    public RepoAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepositoryCall(ProceedingJoinPoint pjp) throws Throwable {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = pjp.proceed();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            MethodTimers methodTimers = timersFor(pjp);
+            (success ? methodTimers.success() : methodTimers.error()).record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // get antes do computeIfAbsent: no caminho quente (timer já criado) não aloca o lambda,
+    // que captura o alvo da chamada
+    private MethodTimers timersFor(ProceedingJoinPoint pjp) {
+        Object target = pjp.getTarget();
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        Map<Method, MethodTimers> byMethod = timers.get(target.getClass());
+        if (byMethod == null) {
+            byMethod = timers.computeIfAbsent(target.getClass(), k -> new ConcurrentHashMap<>());
         }
-        return pjp.proceed();
+        MethodTimers methodTimers = byMethod.get(method);
+        if (methodTimers == null) {
+            methodTimers = byMethod.computeIfAbsent(method, m -> register(repositoryName(target), m.getName()));
+        }
+        return methodTimers;
+    }
+
+    private MethodTimers register(String repository, String method) {
+        return new MethodTimers(timer(repository, method, "SUCCESS"), timer(repository, method, "ERROR"));
+    }
+
+    private Timer timer(String repository, String method, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Spring Data repository invocations")
+                .tag("repository", repository)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                // só o histograma: percentis saem da agregação no backend (p95 por instância não soma)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String repositoryName(Object target) {
+        // o alvo é o proxy do Spring Data; a primeira interface é o repositório da aplicação
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(target);
+        return interfaces.length > 0 ? interfaces[0].getSimpleName() : target.getClass().getSimpleName();
     }
+
+    private record MethodTimers(Timer success, Timer error) {}
 }
@@ -0,0 +1,54 @@
+package com.example.studentcourse.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Para filtros que seguram um recurso durante a requisição: com processamento assíncrono
+ * (StreamingResponseBody, /stream) a chain volta antes da resposta terminar, então a
+ * liberação fica para o AsyncListener (complete, erro ou timeout, uma vez só).
+ */
+public final class RequestCompletion {
+
+    private RequestCompletion() {}
+
+    // chamar no finally, depois de filterChain.doFilter
+    public static void whenComplete(HttpServletRequest request, Runnable action) {
+        if (!request.isAsyncStarted()) {
+            action.run();
+            return;
+        }
+        AtomicBoolean done = new AtomicBoolean();
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                runOnce();
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                runOnce();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                runOnce();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+                // novo ciclo assíncrono (re-dispatch): o listener precisa ser registrado de novo
+                event.getAsyncContext().addListener(this);
+            }
+
+            private void runOnce() {
+                if (done.compareAndSet(false, true)) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
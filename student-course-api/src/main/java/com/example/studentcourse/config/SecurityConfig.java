@@ -1,19 +1,21 @@
 package com.example.studentcourse.config;
 
-import com.example.studentcourse.repository.ProfessorRepository;
+import com.example.studentcourse.service.AccessTokenService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.NoOpPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import jakarta.servlet.http.HttpServletResponse;
 
 @Configuration
@@ -31,25 +33,27 @@ public class SecurityConfig {
         };
     }
 
-    // UserDetailsService que carrega professor por username (assume ProfessorRepository existe)
+    // UserDetailsService: ProfessorUserDetailsService (service), com cache dos professores autenticados
+
+    // usado pelo POST /api/auth/login (mesmo UserDetailsService + PasswordEncoder do HTTP Basic)
     @Bean
-    public UserDetailsService userDetailsService(ProfessorRepository professorRepository) {
-        return username -> professorRepository.findByUsername(username)
-                .map(professor -> User.withUsername(professor.getUsername())
-                        .password(professor.getPassword()) // senha em texto (NoOp)
-                        .roles("PROFESSOR")
-                        .build()).orElseThrow(() ->
-                        new UsernameNotFoundException("Professor not found"));
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) throws Exception {
+        return configuration.getAuthenticationManager();
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationEntryPoint restAuthEntryPoint) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AuthenticationEntryPoint restAuthEntryPoint,
+                                           AccessTokenService accessTokenService) throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers("/api/professors").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
                         .anyRequest().authenticated()
                 )
+                // Bearer token (HMAC) antes do Basic: quem já tem token não passa pela checagem de senha
+                .addFilterBefore(new TokenAuthenticationFilter(accessTokenService), BasicAuthenticationFilter.class)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 // aplicar o entrypoint customizado ao httpBasic explicitamente
                 .httpBasic(basic -> basic.authenticationEntryPoint(restAuthEntryPoint))
                 .cors(Customizer.withDefaults());
@@ -0,0 +1,48 @@
+package com.example.studentcourse.config;
+
+import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.service.SubjectService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Carrega o catálogo de disciplinas nos caches (por id, por código e lista completa)
+ * quando a aplicação sobe, para as primeiras requisições não pagarem o miss.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.subjects.warm-up", havingValue = "true", matchIfMissing = true)
+public class SubjectCacheWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(SubjectCacheWarmer.class);
+
+    private final SubjectService subjectService;
+    private final CacheManager cacheManager;
+
+    public SubjectCacheWarmer(SubjectService subjectService, CacheManager cacheManager) {
+        this.subjectService = subjectService;
+        this.cacheManager = cacheManager;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<Subject> subjects = subjectService.findAll();
+        Cache byId = cacheManager.getCache(SubjectService.SUBJECTS_CACHE);
+        Cache byCodigo = cacheManager.getCache(SubjectService.SUBJECTS_BY_CODIGO_CACHE);
+        if (subjects == null || byId == null || byCodigo == null) {
+            return;
+        }
+        for (Subject subject : subjects) {
+            byId.put(subject.getId(), subject);
+            byCodigo.put(subject.getCodigo(), subject);
+        }
+        log.info("Subject cache warmed up with {} subjects", subjects.size());
+    }
+}
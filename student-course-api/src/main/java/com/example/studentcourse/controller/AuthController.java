@@ -0,0 +1,32 @@
+package com.example.studentcourse.controller;
+
+import com.example.studentcourse.dto.LoginDTO;
+import com.example.studentcourse.dto.TokenDTO;
+import com.example.studentcourse.service.AccessTokenService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    private final AuthenticationManager authenticationManager;
+    private final AccessTokenService accessTokenService;
+
+    public AuthController(AuthenticationManager authenticationManager, AccessTokenService accessTokenService) {
+        this.authenticationManager = authenticationManager;
+        this.accessTokenService = accessTokenService;
+    }
+
+    // confere a senha uma vez e devolve um token de curta duração para as próximas chamadas
+    @PostMapping("/login")
+    public ResponseEntity<TokenDTO> login(@RequestBody LoginDTO loginDTO) {
+        Authentication authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(loginDTO.username, loginDTO.password));
+        AccessTokenService.IssuedToken token = accessTokenService.issue(authentication.getName());
+        return ResponseEntity.ok(new TokenDTO(token.value(), token.expiresInSeconds()));
+    }
+}
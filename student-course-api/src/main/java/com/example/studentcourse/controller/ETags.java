@@ -0,0 +1,48 @@
+package com.example.studentcourse.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * ETags a partir das colunas @Version (entidades) e da tabela collection_version (listagens):
+ * o controller calcula o ETag com uma leitura por chave e, se bater com o If-None-Match,
+ * responde 304 sem carregar nem serializar as entidades.
+ * Sem versão disponível (null) a resposta segue normal, sem ETag.
+ */
+final class ETags {
+
+    private ETags() {}
+
+    static String ofEntity(String resource, Long id, Long version) {
+        if (version == null) {
+            return null;
+        }
+        return "\"" + resource + "-" + id + "-" + version + "\"";
+    }
+
+    static String ofCollection(String resource, Long version) {
+        if (version == null) {
+            return null;
+        }
+        return "\"" + resource + "-v" + version + "\"";
+    }
+
+    // true quando o cliente já tem a versão atual (a resposta vira 304)
+    static boolean notModified(WebRequest request, String etag) {
+        return etag != null && request.checkNotModified(etag);
+    }
+
+    static <T> ResponseEntity<T> notModifiedResponse(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+
+    // no-cache: o navegador pode guardar, mas revalida com If-None-Match a cada uso
+    static <T> ResponseEntity<T> ok(String etag, T body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body);
+    }
+}
@@ -1,15 +1,27 @@
 package com.example.studentcourse.controller;
 
+import com.example.studentcourse.dto.BatchEnrollmentDTO;
+import com.example.studentcourse.dto.BatchEnrollmentResultDTO;
 import com.example.studentcourse.dto.EnrollmentDTO;
+import com.example.studentcourse.dto.EnrollmentResponseDTO;
+import com.example.studentcourse.dto.EnrollmentSummaryDTO;
 import com.example.studentcourse.dto.GradeDTO;
+import com.example.studentcourse.dto.GradeImportResultDTO;
+import com.example.studentcourse.dto.StudentListItemDTO;
 import com.example.studentcourse.model.Enrollment;
-import com.example.studentcourse.model.Student;
-import com.example.studentcourse.repository.EnrollmentRepository;
 import com.example.studentcourse.service.EnrollmentService;
+import com.example.studentcourse.service.GradeImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -18,44 +30,103 @@ import java.util.Map;
 public class EnrollmentController {
 
     private final EnrollmentService enrollmentService;
-    private final EnrollmentRepository enrollmentRepository;
+    private final GradeImportService gradeImportService;
+    private final ObjectMapper objectMapper;
 
-    public EnrollmentController(EnrollmentService enrollmentService,  EnrollmentRepository enrollmentRepository) {
+    public EnrollmentController(EnrollmentService enrollmentService, GradeImportService gradeImportService, ObjectMapper objectMapper) {
         this.enrollmentService = enrollmentService;
-        this.enrollmentRepository = enrollmentRepository;
+        this.gradeImportService = gradeImportService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    public ResponseEntity<Enrollment> enroll(@RequestBody EnrollmentDTO enrollmentDTO) {
+    public ResponseEntity<EnrollmentResponseDTO> enroll(@RequestBody EnrollmentDTO enrollmentDTO) {
         Enrollment enrollment = enrollmentService.enroll(enrollmentDTO.studentId, enrollmentDTO.subjectId);
-        return ResponseEntity.status(HttpStatus.CREATED).body(enrollment);
+        return ResponseEntity.status(HttpStatus.CREATED).body(EnrollmentResponseDTO.of(enrollment));
+    }
+
+    @PostMapping("/batch")
+    public List<BatchEnrollmentResultDTO> enrollBatch(@RequestBody BatchEnrollmentDTO batchDTO) {
+        return enrollmentService.enrollBatch(batchDTO.subjectId, batchDTO.studentIds);
     }
 
     @PutMapping("/{id}/grade")
-    public ResponseEntity<Enrollment> grade(@PathVariable Long id, @RequestBody GradeDTO gradeDTO) {
-        Enrollment enrollment = enrollmentService.setGrade(id, gradeDTO.grade);
-        return ResponseEntity.ok(enrollment);
+    public ResponseEntity<EnrollmentResponseDTO> grade(@PathVariable Long id, @RequestBody GradeDTO gradeDTO) {
+        Enrollment enrollment = enrollmentService.setGrade(id, gradeDTO.grade, gradeDTO.version);
+        return ResponseEntity.ok(EnrollmentResponseDTO.of(enrollment));
+    }
+
+    // upload de notas em CSV (multipart, campo "file")
+    @PostMapping(value = "/subject/{subjectId}/grades", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public GradeImportResultDTO importGrades(@PathVariable Long subjectId, @RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return gradeImportService.importGrades(subjectId, csv);
+        }
     }
 
+    // mesmo import com o CSV no corpo da requisição (text/csv), lido direto do socket
+    @PostMapping(value = "/subject/{subjectId}/grades", consumes = "text/csv")
+    public GradeImportResultDTO importGradesStream(@PathVariable Long subjectId, InputStream csv) throws IOException {
+        return gradeImportService.importGrades(subjectId, csv);
+    }
+
+    // If-None-Match com o ETag atual -> 304 sem ler as matrículas
     @GetMapping
-    public List<Enrollment> findAll() {
-        return enrollmentRepository.findAll();
+    public ResponseEntity<List<EnrollmentResponseDTO>> findAll(WebRequest request) {
+        String etag = ETags.ofCollection("enrollments", enrollmentService.collectionVersion());
+        if (ETags.notModified(request, etag)) {
+            return ETags.notModifiedResponse(etag);
+        }
+        return ETags.ok(etag, enrollmentService.findAll());
+    }
+
+    // export completo em NDJSON (uma matrícula por linha, mesmo formato do GET /api/enrollments)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = JsonStreaming.ndjson(objectMapper, enrollmentService::exportAll);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/summary")
+    public List<EnrollmentSummaryDTO> summary(@RequestParam(defaultValue = "0") int page,
+                                              @RequestParam(defaultValue = "50") int size) {
+        return enrollmentService.findSummaries(page, size);
     }
 
+    // sem page/size devolve a lista completa (contrato original); com qualquer um dos dois,
+    // paginado (page 0 e size 50 por padrão, máximo 500)
     @GetMapping("/subject/{subjectId}/approved")
-    public List<Student> approved(@PathVariable Long subjectId) {
-        return enrollmentService.getApprovedBySubject(subjectId);
+    public List<StudentListItemDTO> approved(@PathVariable Long subjectId,
+                                  @RequestParam(required = false) Integer page,
+                                  @RequestParam(required = false) Integer size) {
+        if (page == null && size == null) {
+            return enrollmentService.getApprovedBySubject(subjectId);
+        }
+        return enrollmentService.getApprovedBySubject(subjectId, pageOrDefault(page), sizeOrDefault(size));
     }
 
     @GetMapping("/subject/{subjectId}/failed")
-    public List<Student> failed(@PathVariable Long subjectId) {
-        return enrollmentService.getFailedBySubject(subjectId);
+    public List<StudentListItemDTO> failed(@PathVariable Long subjectId,
+                                @RequestParam(required = false) Integer page,
+                                @RequestParam(required = false) Integer size) {
+        if (page == null && size == null) {
+            return enrollmentService.getFailedBySubject(subjectId);
+        }
+        return enrollmentService.getFailedBySubject(subjectId, pageOrDefault(page), sizeOrDefault(size));
+    }
+
+    private static int pageOrDefault(Integer page) {
+        return page == null ? 0 : page;
+    }
+
+    private static int sizeOrDefault(Integer size) {
+        return size == null ? EnrollmentService.DEFAULT_PAGE_SIZE : size;
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Enrollment> update(@PathVariable Long id, @RequestBody EnrollmentDTO enrollmentDTO){
-        Enrollment updated = enrollmentService.updateEnrollment(id, enrollmentDTO.studentId, enrollmentDTO.subjectId);
-        return ResponseEntity.ok(updated);
+    public ResponseEntity<EnrollmentResponseDTO> update(@PathVariable Long id, @RequestBody EnrollmentDTO enrollmentDTO){
+        Enrollment updated = enrollmentService.updateEnrollment(id, enrollmentDTO.studentId, enrollmentDTO.subjectId, enrollmentDTO.version);
+        return ResponseEntity.ok(EnrollmentResponseDTO.of(updated));
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,74 @@
+package com.example.studentcourse.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Escreve um array JSON item a item, à medida que a fonte produz as linhas,
+ * sem montar a lista completa em memória.
+ */
+final class JsonStreaming {
+
+    private JsonStreaming() {}
+
+    static <T> StreamingResponseBody jsonArray(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        return out -> {
+            ObjectWriter writer = rowWriter(objectMapper);
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.writeStartArray();
+                try {
+                    source.accept(item -> write(writer, generator, item));
+                } catch (UncheckedIOException ex) {
+                    throw ex.getCause();
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    // NDJSON: um objeto JSON por linha, sem array em volta
+    static <T> StreamingResponseBody ndjson(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        return out -> {
+            ObjectWriter writer = rowWriter(objectMapper);
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                try {
+                    source.accept(item -> {
+                        write(writer, generator, item);
+                        writeNewline(generator);
+                    });
+                } catch (UncheckedIOException ex) {
+                    throw ex.getCause();
+                }
+            }
+        };
+    }
+
+    private static void writeNewline(JsonGenerator generator) {
+        try {
+            generator.writeRaw('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // sem flush a cada item: o buffer do generator/Tomcat decide quando enviar
+    private static ObjectWriter rowWriter(ObjectMapper objectMapper) {
+        return objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private static void write(ObjectWriter writer, JsonGenerator generator, Object item) {
+        try {
+            writer.writeValue(generator, item);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
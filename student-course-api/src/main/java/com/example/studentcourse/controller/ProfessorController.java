@@ -1,6 +1,7 @@
 package com.example.studentcourse.controller;
 
 import com.example.studentcourse.dto.ProfessorDTO;
+import com.example.studentcourse.dto.ProfessorResponseDTO;
 import com.example.studentcourse.model.Professor;
 import com.example.studentcourse.service.ProfessorService;
 import jakarta.validation.Valid;
@@ -18,20 +19,19 @@ public class ProfessorController {
         this.professorService = professorService;
     }
 
+    // a resposta não leva a senha (ProfessorResponseDTO)
     @PostMapping
-    public ResponseEntity<Professor> create(@Valid @RequestBody ProfessorDTO professorDTO) {
+    public ResponseEntity<ProfessorResponseDTO> create(@Valid @RequestBody ProfessorDTO professorDTO) {
         Professor professor = new Professor(professorDTO.username, professorDTO.password, professorDTO.nome);
         Professor createdProfessor = professorService.create(professor);
-        createdProfessor.setPassword(professorDTO.password);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdProfessor);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ProfessorResponseDTO.of(createdProfessor));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Professor>  update(@PathVariable Long id, @Valid @RequestBody ProfessorDTO professorDTO) {
+    public ResponseEntity<ProfessorResponseDTO> update(@PathVariable Long id, @Valid @RequestBody ProfessorDTO professorDTO) {
         Professor professor = new Professor(professorDTO.username, professorDTO.password, professorDTO.nome);
         Professor updatedProfessor = professorService.update(id, professor);
-        updatedProfessor.setPassword(professorDTO.password);
-        return ResponseEntity.ok(updatedProfessor);
+        return ResponseEntity.ok(ProfessorResponseDTO.of(updatedProfessor));
     }
 
     @DeleteMapping("/{id}")
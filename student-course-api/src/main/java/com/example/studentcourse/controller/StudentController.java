@@ -1,12 +1,20 @@
 package com.example.studentcourse.controller;
 
+import com.example.studentcourse.dto.KeysetPage;
 import com.example.studentcourse.dto.StudentDTO;
+import com.example.studentcourse.dto.StudentListItemDTO;
+import com.example.studentcourse.dto.StudentResponseDTO;
+import com.example.studentcourse.dto.TranscriptDTO;
 import com.example.studentcourse.model.Student;
 import com.example.studentcourse.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,34 +23,68 @@ import java.util.List;
 public class StudentController {
 
     private final StudentService studentService;
+    private final ObjectMapper objectMapper;
 
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, ObjectMapper objectMapper) {
         this.studentService = studentService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    public ResponseEntity<Student> create(@Valid @RequestBody StudentDTO studentDTO) {
+    public ResponseEntity<StudentResponseDTO> create(@Valid @RequestBody StudentDTO studentDTO) {
         Student student = new Student(studentDTO.nome, studentDTO.cpf, studentDTO.email, studentDTO.telefone, studentDTO.endereco);
         Student createdStudent = studentService.create(student);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdStudent);
+        return ResponseEntity.status(HttpStatus.CREATED).body(StudentResponseDTO.of(createdStudent));
     }
 
+    // listagens em StudentListItemDTO (id, nome, CPF, e-mail); o aluno completo fica no GET /{id}
     @GetMapping
-    public List<Student> findAll() {
+    public List<StudentListItemDTO> findAll() {
         return studentService.findAll();
     }
 
+    // paginação por cursor: ?limit=50 para a primeira página, depois ?after=<nextCursor>&limit=50
+    @GetMapping(params = "limit")
+    public KeysetPage<StudentListItemDTO> findPage(@RequestParam(required = false) Long after, @RequestParam Integer limit) {
+        return studentService.findPage(after, limit);
+    }
+
+    // ?q=<prefixo de nome, CPF ou e-mail>, ranqueado e paginado por page/size
+    @GetMapping("/search")
+    public List<StudentListItemDTO> search(@RequestParam String q,
+                                @RequestParam(defaultValue = "0") int page,
+                                @RequestParam(defaultValue = "50") int size) {
+        return studentService.search(q, page, size);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = JsonStreaming.jsonArray(objectMapper, studentService::streamAll);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Student> findById(@PathVariable Long id) {
+    public ResponseEntity<StudentResponseDTO> findById(@PathVariable Long id, WebRequest request) {
+        // confere só a coluna version antes de carregar o aluno
+        String etag = ETags.ofEntity("student", id, studentService.findVersion(id).orElse(null));
+        if (ETags.notModified(request, etag)) {
+            return ETags.notModifiedResponse(etag);
+        }
         Student student = studentService.findById(id);
-        return ResponseEntity.ok(student);
+        return ETags.ok(ETags.ofEntity("student", id, student.getVersion()), StudentResponseDTO.of(student));
+    }
+
+    @GetMapping("/{id}/transcript")
+    public TranscriptDTO transcript(@PathVariable Long id) {
+        return studentService.getTranscript(id);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Student> update(@PathVariable Long id, @Valid @RequestBody StudentDTO studentDTO) {
+    public ResponseEntity<StudentResponseDTO> update(@PathVariable Long id, @Valid @RequestBody StudentDTO studentDTO) {
         Student student = new Student(studentDTO.nome, studentDTO.cpf,  studentDTO.email, studentDTO.telefone, studentDTO.endereco);
+        student.setVersion(studentDTO.version);
         Student updatedStudent = studentService.update(id, student);
-        return ResponseEntity.ok(updatedStudent);
+        return ResponseEntity.ok(StudentResponseDTO.of(updatedStudent));
     }
 
     @DeleteMapping("/{id}")
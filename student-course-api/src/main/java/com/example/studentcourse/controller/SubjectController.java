@@ -1,12 +1,23 @@
 package com.example.studentcourse.controller;
 
+import com.example.studentcourse.dto.KeysetPage;
 import com.example.studentcourse.dto.SubjectDTO;
+import com.example.studentcourse.dto.SubjectGradeSummaryDTO;
+import com.example.studentcourse.dto.SubjectResponseDTO;
+import com.example.studentcourse.dto.SubjectStatsDTO;
+import com.example.studentcourse.dto.SummaryRebuildResultDTO;
 import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.service.SubjectGradeSummaryService;
 import com.example.studentcourse.service.SubjectService;
+import com.example.studentcourse.service.SubjectStatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,34 +26,90 @@ import java.util.List;
 public class SubjectController {
 
     private final SubjectService subjectService;
+    private final SubjectStatsService subjectStatsService;
+    private final SubjectGradeSummaryService gradeSummaryService;
+    private final ObjectMapper objectMapper;
 
-    public SubjectController(SubjectService subjectService) {
+    public SubjectController(SubjectService subjectService, SubjectStatsService subjectStatsService,
+                             SubjectGradeSummaryService gradeSummaryService, ObjectMapper objectMapper) {
         this.subjectService = subjectService;
+        this.subjectStatsService = subjectStatsService;
+        this.gradeSummaryService = gradeSummaryService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
-    public ResponseEntity<Subject> create(@Valid @RequestBody SubjectDTO subjectDTO) {
-        Subject subject = new Subject(subjectDTO.nome, subjectDTO.codigo);
+    public ResponseEntity<SubjectResponseDTO> create(@Valid @RequestBody SubjectDTO subjectDTO) {
+        Subject subject = new Subject(subjectDTO.nome, subjectDTO.codigo, subjectDTO.passingGrade);
         Subject createdSubject = subjectService.create(subject);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdSubject);
+        return ResponseEntity.status(HttpStatus.CREATED).body(SubjectResponseDTO.of(createdSubject));
     }
 
+    // If-None-Match com o ETag atual -> 304 sem montar a lista; a lista vem do cache (entidades)
+    // e só é copiada para DTO na resposta
     @GetMapping
-    public List<Subject> findAll() {
-        return subjectService.findAll();
+    public ResponseEntity<List<SubjectResponseDTO>> findAll(WebRequest request) {
+        String etag = ETags.ofCollection("subjects", subjectService.collectionVersion());
+        if (ETags.notModified(request, etag)) {
+            return ETags.notModifiedResponse(etag);
+        }
+        return ETags.ok(etag, subjectService.findAll().stream().map(SubjectResponseDTO::of).toList());
+    }
+
+    // paginação por cursor: ?limit=50 para a primeira página, depois ?after=<nextCursor>&limit=50
+    @GetMapping(params = "limit")
+    public KeysetPage<SubjectResponseDTO> findPage(@RequestParam(required = false) Long after, @RequestParam Integer limit) {
+        return subjectService.findPage(after, limit);
+    }
+
+    // ?q=<prefixo de nome, ou código>, ranqueado e paginado por page/size
+    @GetMapping("/search")
+    public List<SubjectResponseDTO> search(@RequestParam String q,
+                                @RequestParam(defaultValue = "0") int page,
+                                @RequestParam(defaultValue = "50") int size) {
+        return subjectService.search(q, page, size);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = JsonStreaming.jsonArray(objectMapper, subjectService::streamAll);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Subject> findById(@PathVariable Long id) {
+    public ResponseEntity<SubjectResponseDTO> findById(@PathVariable Long id) {
         Subject subject = subjectService.findById(id);
-        return ResponseEntity.ok(subject);
+        return ResponseEntity.ok(SubjectResponseDTO.of(subject));
+    }
+
+    @GetMapping("/codigo/{codigo}")
+    public ResponseEntity<SubjectResponseDTO> findByCodigo(@PathVariable String codigo) {
+        return ResponseEntity.ok(SubjectResponseDTO.of(subjectService.findByCodigo(codigo)));
+    }
+
+    @GetMapping("/{id}/stats")
+    public SubjectStatsDTO stats(@PathVariable Long id) {
+        return subjectStatsService.getStats(id);
+    }
+
+    // contadores mantidos por delta: leitura por chave, sem varrer as matrículas
+    @GetMapping("/{id}/summary")
+    public SubjectGradeSummaryDTO summary(@PathVariable Long id) {
+        return gradeSummaryService.get(id);
+    }
+
+    // recálculo sob demanda (o mesmo do GradeSummaryRebuildJob)
+    @PostMapping("/summaries/rebuild")
+    public SummaryRebuildResultDTO rebuildSummaries() {
+        return gradeSummaryService.rebuildAll();
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Subject> update(@PathVariable Long id, @Valid @RequestBody SubjectDTO subjectDTO) {
-        Subject subject = new Subject(subjectDTO.nome, subjectDTO.codigo);
+    public ResponseEntity<SubjectResponseDTO> update(@PathVariable Long id, @Valid @RequestBody SubjectDTO subjectDTO) {
+        Subject subject = new Subject(subjectDTO.nome, subjectDTO.codigo, subjectDTO.passingGrade);
+        subject.setVersion(subjectDTO.version);
         Subject updatedSubject = subjectService.update(id, subject);
-        return ResponseEntity.ok(updatedSubject);
+        return ResponseEntity.ok(SubjectResponseDTO.of(updatedSubject));
     }
 
     @DeleteMapping("/{id}")
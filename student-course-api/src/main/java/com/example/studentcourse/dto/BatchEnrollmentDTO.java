@@ -0,0 +1,8 @@
+package com.example.studentcourse.dto;
+
+import java.util.List;
+
+public class BatchEnrollmentDTO {
+    public Long subjectId;
+    public List<Long> studentIds;
+}
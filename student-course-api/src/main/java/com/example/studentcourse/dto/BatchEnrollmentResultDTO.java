@@ -0,0 +1,23 @@
+package com.example.studentcourse.dto;
+
+public class BatchEnrollmentResultDTO {
+
+    public static final String CREATED = "CREATED";
+    public static final String STUDENT_NOT_FOUND = "STUDENT_NOT_FOUND";
+    public static final String ALREADY_ENROLLED = "ALREADY_ENROLLED";
+    public static final String DUPLICATE = "DUPLICATE";
+
+    public Long studentId;
+    public String status;
+    public Long enrollmentId;
+    public String error;
+
+    public BatchEnrollmentResultDTO() {}
+
+    public BatchEnrollmentResultDTO(Long studentId, String status, Long enrollmentId, String error) {
+        this.studentId = studentId;
+        this.status = status;
+        this.enrollmentId = enrollmentId;
+        this.error = error;
+    }
+}
@@ -3,4 +3,6 @@ package com.example.studentcourse.dto;
 public class EnrollmentDTO {
     public Long studentId;
     public Long subjectId;
+    // versão lida pelo cliente (opcional): se não for mais a atual, o update responde 409
+    public Long version;
 }
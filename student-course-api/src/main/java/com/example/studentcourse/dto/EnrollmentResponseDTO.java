@@ -0,0 +1,32 @@
+package com.example.studentcourse.dto;
+
+import com.example.studentcourse.model.Enrollment;
+
+/**
+ * Matrícula devolvida pela API: aluno e disciplina só pelo id (nomes em /summary e no histórico).
+ * Ler o id de uma associação LAZY não inicializa o proxy, então montar o DTO não gera query.
+ */
+public class EnrollmentResponseDTO {
+    public Long id;
+    public Long studentId;
+    public Long subjectId;
+    public Double grade;
+    public Long version;
+
+    public EnrollmentResponseDTO() {}
+
+    public EnrollmentResponseDTO(Long id, Long studentId, Long subjectId, Double grade, Long version) {
+        this.id = id;
+        this.studentId = studentId;
+        this.subjectId = subjectId;
+        this.grade = grade;
+        this.version = version;
+    }
+
+    public static EnrollmentResponseDTO of(Enrollment enrollment) {
+        return new EnrollmentResponseDTO(enrollment.getId(),
+                enrollment.getStudent() != null ? enrollment.getStudent().getId() : null,
+                enrollment.getSubject() != null ? enrollment.getSubject().getId() : null,
+                enrollment.getGrade(), enrollment.getVersion());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.studentcourse.dto;
+
+/**
+ * Linha "achatada" de matrícula, preenchida direto pela query (constructor expression)
+ * sem carregar as entidades Student e Subject.
+ */
+public class EnrollmentSummaryDTO {
+    public Long id;
+    public Long studentId;
+    public String studentNome;
+    public Long subjectId;
+    public String subjectCodigo;
+    public String subjectNome;
+    public Double grade;
+
+    public EnrollmentSummaryDTO() {}
+
+    public EnrollmentSummaryDTO(Long id, Long studentId, String studentNome, Long subjectId,
+                                String subjectCodigo, String subjectNome, Double grade) {
+        this.id = id;
+        this.studentId = studentId;
+        this.studentNome = studentNome;
+        this.subjectId = subjectId;
+        this.subjectCodigo = subjectCodigo;
+        this.subjectNome = subjectNome;
+        this.grade = grade;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.studentcourse.dto;
+
+/**
+ * Resultado das funções de agregação sobre enrollments.grade de uma disciplina.
+ * Com a disciplina sem notas, as agregações (exceto os counts) vêm null.
+ */
+public class GradeAggregateDTO {
+    public long enrolled;
+    public long graded;
+    public Double mean;
+    public Double min;
+    public Double max;
+    public Double sumOfSquares;
+    public long approved;
+    public long failed;
+
+    public GradeAggregateDTO(Long enrolled, Long graded, Double mean, Double min, Double max,
+                             Double sumOfSquares, Long approved, Long failed) {
+        this.enrolled = enrolled == null ? 0 : enrolled;
+        this.graded = graded == null ? 0 : graded;
+        this.mean = mean;
+        this.min = min;
+        this.max = max;
+        this.sumOfSquares = sumOfSquares;
+        this.approved = approved == null ? 0 : approved;
+        this.failed = failed == null ? 0 : failed;
+    }
+}
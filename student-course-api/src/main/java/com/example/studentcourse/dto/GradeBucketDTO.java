@@ -0,0 +1,18 @@
+package com.example.studentcourse.dto;
+
+/**
+ * Faixa do histograma de notas: [from, to), a última faixa inclui a nota 10.
+ */
+public class GradeBucketDTO {
+    public int from;
+    public int to;
+    public long count;
+
+    public GradeBucketDTO() {}
+
+    public GradeBucketDTO(Integer from, Long count) {
+        this.from = from;
+        this.to = from + 1;
+        this.count = count;
+    }
+}
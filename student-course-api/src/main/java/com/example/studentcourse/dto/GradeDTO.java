@@ -2,4 +2,6 @@ package com.example.studentcourse.dto;
 
 public class GradeDTO {
     public Double grade;
+    // versão lida pelo cliente (opcional): se não for mais a atual, o update responde 409
+    public Long version;
 }
@@ -0,0 +1,26 @@
+package com.example.studentcourse.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GradeImportResultDTO {
+    public int rows;
+    public int updated;
+    public int rejected;
+    // limitado a GradeImportService.MAX_REPORTED_REJECTIONS; "rejected" tem o total
+    public List<RejectedRow> rejections = new ArrayList<>();
+
+    public static class RejectedRow {
+        public int line;
+        public String key;
+        public String reason;
+
+        public RejectedRow() {}
+
+        public RejectedRow(int line, String key, String reason) {
+            this.line = line;
+            this.key = key;
+            this.reason = reason;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.studentcourse.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de uma listagem por cursor (keyset): {@code nextCursor} é o id a ser
+ * enviado em {@code ?after=} para buscar a próxima página, ou null quando acabou.
+ */
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    public final List<T> items;
+    public final Long nextCursor;
+
+    public KeysetPage(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public static <T> KeysetPage<T> of(List<T> items, int limit, Function<T, Long> idOf) {
+        Long next = items.size() == limit ? idOf.apply(items.get(items.size() - 1)) : null;
+        return new KeysetPage<>(items, next);
+    }
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.studentcourse.dto;
+
+public class LoginDTO {
+    public String username;
+    public String password;
+}
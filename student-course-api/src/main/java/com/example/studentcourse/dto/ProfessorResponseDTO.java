@@ -0,0 +1,24 @@
+package com.example.studentcourse.dto;
+
+import com.example.studentcourse.model.Professor;
+
+/**
+ * Professor devolvido pela API: a senha nunca sai na resposta.
+ */
+public class ProfessorResponseDTO {
+    public Long id;
+    public String username;
+    public String nome;
+
+    public ProfessorResponseDTO() {}
+
+    public ProfessorResponseDTO(Long id, String username, String nome) {
+        this.id = id;
+        this.username = username;
+        this.nome = nome;
+    }
+
+    public static ProfessorResponseDTO of(Professor professor) {
+        return new ProfessorResponseDTO(professor.getId(), professor.getUsername(), professor.getNome());
+    }
+}
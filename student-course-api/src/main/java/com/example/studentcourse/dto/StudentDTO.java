@@ -6,4 +6,6 @@ public class StudentDTO {
     public String email;
     public String telefone;
     public String endereco;
+    // versão lida pelo cliente (opcional): se não for mais a atual, o update responde 409
+    public Long version;
 }
@@ -0,0 +1,26 @@
+package com.example.studentcourse.dto;
+
+/**
+ * Linha das listagens de alunos (lista, página, busca, stream, aprovados/reprovados),
+ * preenchida direto pela query (constructor expression) só com as colunas exibidas.
+ * Telefone e endereço ficam porque a UI edita a partir da linha; versão fica no GET /api/students/{id}.
+ */
+public class StudentListItemDTO {
+    public Long id;
+    public String nome;
+    public String cpf;
+    public String email;
+    public String telefone;
+    public String endereco;
+
+    public StudentListItemDTO() {}
+
+    public StudentListItemDTO(Long id, String nome, String cpf, String email, String telefone, String endereco) {
+        this.id = id;
+        this.nome = nome;
+        this.cpf = cpf;
+        this.email = email;
+        this.telefone = telefone;
+        this.endereco = endereco;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.studentcourse.dto;
+
+import com.example.studentcourse.model.Student;
+
+/**
+ * Aluno devolvido pela API (create, update, GET por id): só os campos públicos,
+ * sem as colunas de busca nem o proxy do Hibernate.
+ */
+public class StudentResponseDTO {
+    public Long id;
+    public String nome;
+    public String cpf;
+    public String email;
+    public String telefone;
+    public String endereco;
+    public Long version;
+
+    public StudentResponseDTO() {}
+
+    public StudentResponseDTO(Long id, String nome, String cpf, String email, String telefone, String endereco, Long version) {
+        this.id = id;
+        this.nome = nome;
+        this.cpf = cpf;
+        this.email = email;
+        this.telefone = telefone;
+        this.endereco = endereco;
+        this.version = version;
+    }
+
+    public static StudentResponseDTO of(Student student) {
+        return new StudentResponseDTO(student.getId(), student.getNome(), student.getCpf(), student.getEmail(),
+                student.getTelefone(), student.getEndereco(), student.getVersion());
+    }
+}
@@ -3,4 +3,7 @@ package com.example.studentcourse.dto;
 public class SubjectDTO {
     public String nome;
     public String codigo;
+    public Double passingGrade;
+    // versão lida pelo cliente (opcional): se não for mais a atual, o update responde 409
+    public Long version;
 }
@@ -0,0 +1,25 @@
+package com.example.studentcourse.dto;
+
+import com.example.studentcourse.model.SubjectGradeSummary;
+
+public class SubjectGradeSummaryDTO {
+    public Long subjectId;
+    public long enrolled;
+    public long graded;
+    public long pending;
+    public long approved;
+    public long failed;
+    public Double average;
+
+    public static SubjectGradeSummaryDTO of(SubjectGradeSummary summary) {
+        SubjectGradeSummaryDTO dto = new SubjectGradeSummaryDTO();
+        dto.subjectId = summary.getSubjectId();
+        dto.enrolled = summary.getEnrolled();
+        dto.graded = summary.getGraded();
+        dto.pending = summary.getEnrolled() - summary.getGraded();
+        dto.approved = summary.getApproved();
+        dto.failed = summary.getFailed();
+        dto.average = summary.getGraded() > 0 ? summary.getGradeSum() / summary.getGraded() : null;
+        return dto;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.studentcourse.dto;
+
+import com.example.studentcourse.model.Subject;
+
+/**
+ * Disciplina devolvida pela API; nas listagens paginadas/busca/stream vem direto
+ * da query (constructor expression), nas demais é copiada da entidade em cache.
+ */
+public class SubjectResponseDTO {
+    public Long id;
+    public String nome;
+    public String codigo;
+    public Double passingGrade;
+    public Long version;
+
+    public SubjectResponseDTO() {}
+
+    public SubjectResponseDTO(Long id, String nome, String codigo, Double passingGrade, Long version) {
+        this.id = id;
+        this.nome = nome;
+        this.codigo = codigo;
+        this.passingGrade = passingGrade;
+        this.version = version;
+    }
+
+    public static SubjectResponseDTO of(Subject subject) {
+        return new SubjectResponseDTO(subject.getId(), subject.getNome(), subject.getCodigo(),
+                subject.getPassingGrade(), subject.getVersion());
+    }
+}
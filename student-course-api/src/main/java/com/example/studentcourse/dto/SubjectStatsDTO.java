@@ -0,0 +1,17 @@
+package com.example.studentcourse.dto;
+
+import java.util.List;
+
+public class SubjectStatsDTO {
+    public Long subjectId;
+    public double passingGrade;
+    public long enrolled;
+    public long graded;
+    public Double mean;
+    public Double min;
+    public Double max;
+    public Double standardDeviation;
+    public long approved;
+    public long failed;
+    public List<GradeBucketDTO> histogram;
+}
@@ -0,0 +1,15 @@
+package com.example.studentcourse.dto;
+
+/**
+ * Resultado do recálculo dos contadores: quantas disciplinas foram conferidas
+ * e quantas estavam divergentes (e foram corrigidas).
+ */
+public class SummaryRebuildResultDTO {
+    public int subjects;
+    public int corrected;
+
+    public SummaryRebuildResultDTO(int subjects, int corrected) {
+        this.subjects = subjects;
+        this.corrected = corrected;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.studentcourse.dto;
+
+public class TokenDTO {
+    public String accessToken;
+    public String tokenType = "Bearer";
+    public long expiresIn;
+
+    public TokenDTO() {}
+
+    public TokenDTO(String accessToken, long expiresIn) {
+        this.accessToken = accessToken;
+        this.expiresIn = expiresIn;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.studentcourse.dto;
+
+import java.util.List;
+
+/**
+ * Histórico do aluno: disciplinas, notas, situação e média das notas lançadas.
+ */
+public class TranscriptDTO {
+
+    public enum Status { APPROVED, FAILED, PENDING }
+
+    public Long studentId;
+    public String nome;
+    public String cpf;
+    public String email;
+    public List<Entry> subjects;
+    public Double average;
+    public long approved;
+    public long failed;
+    public long pending;
+
+    public static class Entry {
+        public Long enrollmentId;
+        public Long subjectId;
+        public String codigo;
+        public String nome;
+        public Double grade;
+        public double passingGrade;
+        public Status status;
+    }
+}
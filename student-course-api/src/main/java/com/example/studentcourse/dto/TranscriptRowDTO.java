@@ -0,0 +1,33 @@
+package com.example.studentcourse.dto;
+
+/**
+ * Linha do histórico: dados do aluno repetidos em cada matrícula (left join),
+ * com as colunas da matrícula/disciplina null quando o aluno não tem matrículas.
+ */
+public class TranscriptRowDTO {
+    public Long studentId;
+    public String studentNome;
+    public String studentCpf;
+    public String studentEmail;
+    public Long enrollmentId;
+    public Long subjectId;
+    public String subjectCodigo;
+    public String subjectNome;
+    public Double passingGrade;
+    public Double grade;
+
+    public TranscriptRowDTO(Long studentId, String studentNome, String studentCpf, String studentEmail,
+                            Long enrollmentId, Long subjectId, String subjectCodigo, String subjectNome,
+                            Double passingGrade, Double grade) {
+        this.studentId = studentId;
+        this.studentNome = studentNome;
+        this.studentCpf = studentCpf;
+        this.studentEmail = studentEmail;
+        this.enrollmentId = enrollmentId;
+        this.subjectId = subjectId;
+        this.subjectCodigo = subjectCodigo;
+        this.subjectNome = subjectNome;
+        this.passingGrade = passingGrade;
+        this.grade = grade;
+    }
+}
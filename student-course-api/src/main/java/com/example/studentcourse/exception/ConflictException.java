@@ -0,0 +1,21 @@
+package com.example.studentcourse.exception;
+
+/**
+ * Conflito de concorrência otimista (@Version): o registro mudou desde que o cliente o leu,
+ * ou continuou mudando durante as tentativas automáticas. Vira 409 com o estado atual.
+ */
+public class ConflictException extends RuntimeException {
+
+    public static final String MESSAGE = "The record was changed by another user ( O registro foi alterado por outro usuário )";
+
+    private final transient Object current;
+
+    public ConflictException(String message, Object current) {
+        super(message);
+        this.current = current;
+    }
+
+    public Object getCurrent() {
+        return current;
+    }
+}
@@ -1,15 +1,93 @@
 package com.example.studentcourse.exception;
 
+import com.example.studentcourse.dto.EnrollmentResponseDTO;
+import com.example.studentcourse.dto.StudentResponseDTO;
+import com.example.studentcourse.dto.SubjectResponseDTO;
+import com.example.studentcourse.model.Enrollment;
+import com.example.studentcourse.model.Student;
+import com.example.studentcourse.model.Subject;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @RestControllerAdvice
 public class RestExceptionHandler {
 
+    // constraints nomeadas nas entidades -> mensagens que antes vinham dos selects de pré-checagem
+    private static final Map<String, String> CONSTRAINT_MESSAGES = Map.of(
+            "uk_students_cpf", "CPF already registered ( CPF já cadastrado )",
+            "uk_subjects_codigo", "Subject already exists ( Código já existe )",
+            "uk_professor_username", "User already exists ( Usuário já existe )",
+            "uk_enrollments_student_subject", "Student already registered in the subject ( Aluno já cadastrado na disciplina )",
+            "fk_enrollments_student", "Student not found ( Aluno não encontrado )",
+            "fk_enrollments_subject", "Subject not found ( Disciplina não encontrada )");
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException ex){
         return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
     }
+
+    // 409 com o estado atual, para o cliente reaplicar a alteração sobre ele
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(ConflictException ex){
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", ex.getMessage());
+        if (ex.getCurrent() != null) {
+            body.put("current", responseView(ex.getCurrent()));
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    // o estado atual sai no mesmo formato das respostas de sucesso, não como entidade
+    private static Object responseView(Object current) {
+        return switch (current) {
+            case Student student -> StudentResponseDTO.of(student);
+            case Subject subject -> SubjectResponseDTO.of(subject);
+            case Enrollment enrollment -> EnrollmentResponseDTO.of(enrollment);
+            default -> current;
+        };
+    }
+
+    // conflitos de @Version fora do OptimisticRetry (ex.: import de notas, delete)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLock(OptimisticLockingFailureException ex){
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ConflictException.MESSAGE));
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> handleDataIntegrity(DataIntegrityViolationException ex){
+        String violated = violatedConstraint(ex);
+        String message = CONSTRAINT_MESSAGES.entrySet().stream()
+                .filter(entry -> violated.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse("Data integrity violation ( Violação de integridade dos dados )");
+        return ResponseEntity.badRequest().body(Map.of("error", message));
+    }
+
+    // nome da constraint extraído pelo Hibernate; se o dialeto não extrair, procura na mensagem do banco
+    private static String violatedConstraint(DataIntegrityViolationException ex) {
+        Throwable cause = ex;
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                return cve.getConstraintName().toLowerCase(Locale.ROOT);
+            }
+            cause = cause.getCause();
+        }
+        String message = ex.getMostSpecificCause().getMessage();
+        return message == null ? "" : message.toLowerCase(Locale.ROOT);
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Map<String, String>> handleUnauthorized(AuthenticationException ex){
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid credentials ( Credenciais inválidas )"));
+    }
 }
@@ -0,0 +1,63 @@
+package com.example.studentcourse.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// um shard da versão de uma listagem inteira (ETag); a versão é a soma dos shards.
+// Mantida pelo CollectionVersionListener; só leitura aqui
+@Entity
+@Table(name = "collection_version")
+@IdClass(CollectionVersion.Key.class)
+public class CollectionVersion {
+
+    public static final String SUBJECTS = "subjects";
+    public static final String ENROLLMENTS = "enrollments";
+
+    // linhas por listagem criadas na V9
+    public static final int SHARDS = 16;
+
+    @Id
+    private String name;
+
+    @Id
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Long version;
+
+    protected CollectionVersion() {}
+
+    public String getName() { return name; }
+
+    public Integer getShard() { return shard; }
+
+    public Long getVersion() { return version; }
+
+    public static class Key implements Serializable {
+        private String name;
+        private Integer shard;
+
+        protected Key() {}
+
+        public Key(String name, Integer shard) {
+            this.name = name;
+            this.shard = shard;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(name, key.name) && Objects.equals(shard, key.shard);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, shard);
+        }
+    }
+}
@@ -1,25 +1,41 @@
 package com.example.studentcourse.model;
 
+import com.example.studentcourse.audit.AuditEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "enrollments", uniqueConstraints = @UniqueConstraint(columnNames = {"student_id" , "subject_id"} ))
+@EntityListeners(AuditEntityListener.class)
+@Table(name = "enrollments", uniqueConstraints = @UniqueConstraint(name = "uk_enrollments_student_subject", columnNames = {"student_id" , "subject_id"} ))
 public class Enrollment {
 
+    // sequence com pooled optimizer (1 nextval a cada 50 ids): IDENTITY desliga o batch de inserts do Hibernate
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollments_seq")
+    @SequenceGenerator(name = "enrollments_seq", sequenceName = "enrollments_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
-    @JoinColumn(name = "student_id")
+    // LAZY: as respostas usam só os ids (EnrollmentResponseDTO), que o proxy já tem sem select
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "student_id", foreignKey = @ForeignKey(name = "fk_enrollments_student"))
     private Student student;
 
-    @ManyToOne(optional = false)
-    @JoinColumn(name = "subject_id")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "subject_id", foreignKey = @ForeignKey(name = "fk_enrollments_subject"))
     private Subject subject;
 
     private Double grade;
 
+    // incrementada pelo Hibernate a cada update; compõe os ETags dos GETs
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    // nota lida do banco, para a auditoria distinguir lançamento de nota de outras alterações
+    @Transient
+    private Double gradeAtLoad;
+
     public Enrollment() {}
 
     public Enrollment(Student student, Subject subject) {
@@ -66,4 +82,25 @@ public class Enrollment {
     public void setGrade(Double grade) {
         this.grade = grade;
     }
+
+    // roda depois do AuditEntityListener (listeners primeiro, callbacks da entidade depois)
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberGrade() {
+        this.gradeAtLoad = grade;
+    }
+
+    @JsonIgnore
+    public Double getGradeAtLoad() {
+        return gradeAtLoad;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
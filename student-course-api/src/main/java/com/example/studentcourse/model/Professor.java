@@ -2,9 +2,16 @@ package com.example.studentcourse.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
-@Table(name = "professor")
+@Table(name = "professor", uniqueConstraints = @UniqueConstraint(name = "uk_professor_username", columnNames = "username"))
+// cache de segundo nível (região "professors") e username -> id; login e update buscam por username
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "professors")
+@NaturalIdCache(region = "professors-by-username")
 public class Professor {
 
     @Id
@@ -12,7 +19,8 @@ public class Professor {
     private Long id;
 
     @NotBlank
-    @Column(nullable = false, unique = true)
+    @NaturalId(mutable = true)
+    @Column(nullable = false)
     private String username;
 
     @NotBlank
@@ -0,0 +1,68 @@
+package com.example.studentcourse.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Forma de busca dos textos: minúsculas, sem acentos e com espaços colapsados.
+ * Gravada nas colunas *_search e aplicada ao termo pesquisado, para o LIKE
+ * por prefixo usar índice comum (sem lower()/unaccent() na query).
+ */
+public final class SearchNormalizer {
+
+    public static final char ESCAPE = '!';
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+    // termo com cara de CPF: só dígitos e a pontuação usual (123.456.789-00)
+    private static final Pattern CPF_TERM = Pattern.compile("[0-9][0-9./\\- ]*");
+
+    private SearchNormalizer() {}
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String plain = DIACRITICS.matcher(decomposed).replaceAll("");
+        return SPACES.matcher(plain.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    // CPF só com dígitos (coluna cpf_search): formatado ou não, o mesmo CPF vira o mesmo texto
+    public static String digits(String value) {
+        if (value == null) {
+            return null;
+        }
+        String digits = NON_DIGITS.matcher(value).replaceAll("");
+        return digits.isEmpty() ? null : digits;
+    }
+
+    // prefixo de CPF para o termo (já normalizado) da busca; null quando o termo não parece CPF
+    public static String cpfPrefix(String normalizedTerm) {
+        return CPF_TERM.matcher(normalizedTerm).matches() ? digits(normalizedTerm) + "%" : null;
+    }
+
+    // termo digitado na busca, já normalizado; vazio é erro de requisição
+    public static String requireTerm(String query) {
+        String term = normalize(query);
+        if (term == null || term.isEmpty()) {
+            throw new IllegalArgumentException("Search term is required ( Informe o termo de busca )");
+        }
+        return term;
+    }
+
+    // prefixo para LIKE ... escape '!': %, _ e ! do termo viram literais
+    // (! em vez de \, que é caractere de escape nos literais do HQL)
+    public static String likePrefix(String normalizedTerm) {
+        StringBuilder pattern = new StringBuilder(normalizedTerm.length() + 1);
+        for (char c : normalizedTerm.toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_') {
+                pattern.append(ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
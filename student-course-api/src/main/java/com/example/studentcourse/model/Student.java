@@ -1,10 +1,28 @@
 package com.example.studentcourse.model;
 
+import com.example.studentcourse.audit.AuditEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
-@Table(name = "students", uniqueConstraints = @UniqueConstraint(columnNames = "cpf"))
+@EntityListeners(AuditEntityListener.class)
+@Table(name = "students", uniqueConstraints = @UniqueConstraint(name = "uk_students_cpf", columnNames = "cpf"),
+        indexes = {
+                @Index(name = "ix_students_nome_search", columnList = "nome_search"),
+                @Index(name = "ix_students_email_search", columnList = "email_search"),
+                @Index(name = "ix_students_cpf_search", columnList = "cpf_search")
+        })
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// cache de segundo nível (região "students", tamanho e TTL em application.conf) e cpf -> id
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "students")
+@NaturalIdCache(region = "students-by-cpf")
 public class Student {
 
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -13,7 +31,9 @@ public class Student {
     @NotBlank
     private String nome;
 
+    // mutable: o cpf pode ser corrigido no update
     @NotBlank
+    @NaturalId(mutable = true)
     private String cpf;
 
     @Email
@@ -22,6 +42,25 @@ public class Student {
     private String telefone;
     private String endereco;
 
+    // nome/email normalizados (SearchNormalizer) para a busca por prefixo
+    @JsonIgnore
+    @Column(name = "nome_search")
+    private String nomeSearch;
+
+    @JsonIgnore
+    @Column(name = "email_search")
+    private String emailSearch;
+
+    // cpf só com dígitos: a busca acha o CPF gravado com ou sem pontuação
+    @JsonIgnore
+    @Column(name = "cpf_search")
+    private String cpfSearch;
+
+    // incrementada pelo Hibernate a cada update; compõe os ETags dos GETs
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     public Student() {}
 
     public Student(String nome, String cpf, String email, String telefone, String endereco) {
@@ -88,4 +127,32 @@ public class Student {
     public void setEndereco(String endereco) {
         this.endereco = endereco;
     }
+
+    @PrePersist
+    @PreUpdate
+    void updateSearchColumns() {
+        this.nomeSearch = SearchNormalizer.normalize(nome);
+        this.emailSearch = SearchNormalizer.normalize(email);
+        this.cpfSearch = SearchNormalizer.digits(cpf);
+    }
+
+    public String getNomeSearch() {
+        return nomeSearch;
+    }
+
+    public String getEmailSearch() {
+        return emailSearch;
+    }
+
+    public String getCpfSearch() {
+        return cpfSearch;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
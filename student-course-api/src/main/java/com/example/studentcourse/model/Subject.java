@@ -1,12 +1,26 @@
 package com.example.studentcourse.model;
 
+import com.example.studentcourse.audit.AuditEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
 
 @Entity
-@Table(name = "subjects", uniqueConstraints = @UniqueConstraint(columnNames = "codigo"))
+@EntityListeners(AuditEntityListener.class)
+@Table(name = "subjects", uniqueConstraints = @UniqueConstraint(name = "uk_subjects_codigo", columnNames = "codigo"),
+        indexes = {
+                @Index(name = "ix_subjects_nome_search", columnList = "nome_search"),
+                @Index(name = "ix_subjects_codigo_search", columnList = "codigo_search")
+        })
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// sem cache de segundo nível: o catálogo já fica nos caches do SubjectService (CacheConfig)
 public class Subject {
 
+    public static final double DEFAULT_PASSING_GRADE = 7.0;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -15,8 +29,28 @@ public class Subject {
     private String nome;
 
     @NotBlank
+    @NaturalId(mutable = true)
     private String codigo;
 
+    // nota mínima para aprovação; null usa DEFAULT_PASSING_GRADE
+    @DecimalMin("0.0")
+    @DecimalMax("10.0")
+    private Double passingGrade;
+
+    // nome/código normalizados (SearchNormalizer) para a busca por prefixo
+    @JsonIgnore
+    @Column(name = "nome_search")
+    private String nomeSearch;
+
+    @JsonIgnore
+    @Column(name = "codigo_search")
+    private String codigoSearch;
+
+    // incrementada pelo Hibernate a cada update; compõe os ETags dos GETs
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     public Subject() {}
 
     public Subject(String nome, String codigo) {
@@ -24,6 +58,12 @@ public class Subject {
         this.codigo = codigo;
     }
 
+    public Subject(String nome, String codigo, Double passingGrade) {
+        this.nome = nome;
+        this.codigo = codigo;
+        this.passingGrade = passingGrade;
+    }
+
     public Subject(Long id, String nome, String codigo) {
         this.id = id;
         this.nome = nome;
@@ -54,4 +94,34 @@ public class Subject {
         this.codigo = codigo;
     }
 
+    public Double getPassingGrade() {
+        return passingGrade;
+    }
+
+    public void setPassingGrade(Double passingGrade) {
+        this.passingGrade = passingGrade;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateSearchColumns() {
+        this.nomeSearch = SearchNormalizer.normalize(nome);
+        this.codigoSearch = SearchNormalizer.normalize(codigo);
+    }
+
+    public String getNomeSearch() {
+        return nomeSearch;
+    }
+
+    public String getCodigoSearch() {
+        return codigoSearch;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
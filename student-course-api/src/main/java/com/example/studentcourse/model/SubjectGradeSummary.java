@@ -0,0 +1,79 @@
+package com.example.studentcourse.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Contadores de notas de uma disciplina, mantidos por delta a cada escrita em enrollments
+ * (SubjectGradeSummaryService), para as contagens não varrerem as matrículas da turma.
+ */
+@Entity
+@Table(name = "subject_grade_summary")
+public class SubjectGradeSummary {
+
+    @Id
+    @Column(name = "subject_id")
+    private Long subjectId;
+
+    private long enrolled;
+    private long graded;
+    private long approved;
+    private long failed;
+
+    @Column(name = "grade_sum")
+    private double gradeSum;
+
+    public SubjectGradeSummary() {}
+
+    public SubjectGradeSummary(Long subjectId) {
+        this.subjectId = subjectId;
+    }
+
+    // usado pela query de recálculo (somas vêm null para disciplina sem matrículas)
+    public SubjectGradeSummary(Long subjectId, Long enrolled, Long graded, Long approved, Long failed, Double gradeSum) {
+        this.subjectId = subjectId;
+        this.enrolled = enrolled == null ? 0 : enrolled;
+        this.graded = graded == null ? 0 : graded;
+        this.approved = approved == null ? 0 : approved;
+        this.failed = failed == null ? 0 : failed;
+        this.gradeSum = gradeSum == null ? 0.0 : gradeSum;
+    }
+
+    // compara os contadores; a soma com tolerância porque deltas em double acumulam arredondamento
+    public boolean sameCountsAs(SubjectGradeSummary other) {
+        return enrolled == other.enrolled && graded == other.graded && approved == other.approved
+                && failed == other.failed && Math.abs(gradeSum - other.gradeSum) < 1e-6;
+    }
+
+    // grava na linha (gerenciada e travada) os contadores de uma recontagem
+    public void copyCountsFrom(SubjectGradeSummary other) {
+        this.enrolled = other.enrolled;
+        this.graded = other.graded;
+        this.approved = other.approved;
+        this.failed = other.failed;
+        this.gradeSum = other.gradeSum;
+    }
+
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public long getEnrolled() {
+        return enrolled;
+    }
+
+    public long getGraded() {
+        return graded;
+    }
+
+    public long getApproved() {
+        return approved;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public double getGradeSum() {
+        return gradeSum;
+    }
+}
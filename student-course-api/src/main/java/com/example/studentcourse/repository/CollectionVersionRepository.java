@@ -0,0 +1,15 @@
+package com.example.studentcourse.repository;
+
+import com.example.studentcourse.model.CollectionVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface CollectionVersionRepository extends JpaRepository<CollectionVersion, CollectionVersion.Key> {
+
+    // ETag das listagens: soma os shards pela chave primária, sem varrer a tabela da listagem
+    @Query("select sum(c.version) from CollectionVersion c where c.name = :name")
+    Optional<Long> findVersion(@Param("name") String name);
+}
@@ -1,15 +1,87 @@
 package com.example.studentcourse.repository;
 
+import com.example.studentcourse.dto.EnrollmentResponseDTO;
+import com.example.studentcourse.dto.EnrollmentSummaryDTO;
+import com.example.studentcourse.dto.GradeAggregateDTO;
+import com.example.studentcourse.dto.GradeBucketDTO;
+import com.example.studentcourse.dto.StudentListItemDTO;
 import com.example.studentcourse.model.Enrollment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
 
     List<Enrollment> findBySubjectId(Long subjectId);
     List<Enrollment> findByStudentId(Long studentId);
 
+    // checagem de duplicidade no update: lookup pelo índice único (student_id, subject_id)
     Optional<Enrollment> findByStudentIdAndSubjectId(Long studentId, Long subjectId);
+
+    @Query("select e.student.id from Enrollment e where e.subject.id = :subjectId and e.student.id in :studentIds")
+    List<Long> findEnrolledStudentIds(@Param("subjectId") Long subjectId, @Param("studentIds") Collection<Long> studentIds);
+
+    String STUDENT_LIST_ITEM = "select new com.example.studentcourse.dto.StudentListItemDTO(st.id, st.nome, st.cpf, st.email, st.telefone, st.endereco) " +
+            "from Enrollment e join e.student st join e.subject su ";
+
+    // matrícula sem join: os ids de aluno/disciplina são as próprias chaves estrangeiras
+    String RESPONSE = "select new com.example.studentcourse.dto.EnrollmentResponseDTO(" +
+            "e.id, e.student.id, e.subject.id, e.grade, e.version) from Enrollment e ";
+
+    @Query(STUDENT_LIST_ITEM +
+            "where su.id = :subjectId and e.grade >= coalesce(su.passingGrade, :defaultPassingGrade) " +
+            "order by st.nome, st.id")
+    List<StudentListItemDTO> findApprovedStudents(@Param("subjectId") Long subjectId,
+                                       @Param("defaultPassingGrade") double defaultPassingGrade,
+                                       Pageable pageable);
+
+    @Query(STUDENT_LIST_ITEM +
+            "where su.id = :subjectId and e.grade < coalesce(su.passingGrade, :defaultPassingGrade) " +
+            "order by st.nome, st.id")
+    List<StudentListItemDTO> findFailedStudents(@Param("subjectId") Long subjectId,
+                                     @Param("defaultPassingGrade") double defaultPassingGrade,
+                                     Pageable pageable);
+
+    @Query("select e from Enrollment e join fetch e.student st join fetch e.subject su " +
+            "where su.id = :subjectId and st.cpfSearch in :cpfs")
+    List<Enrollment> findForGradeImportByCpf(@Param("subjectId") Long subjectId, @Param("cpfs") Collection<String> cpfs);
+
+    @Query("select e from Enrollment e join fetch e.student join fetch e.subject su " +
+            "where su.id = :subjectId and e.id in :ids")
+    List<Enrollment> findForGradeImportByIds(@Param("subjectId") Long subjectId, @Param("ids") Collection<Long> ids);
+
+    @Query("select new com.example.studentcourse.dto.EnrollmentSummaryDTO(" +
+            "e.id, st.id, st.nome, su.id, su.codigo, su.nome, e.grade) " +
+            "from Enrollment e join e.student st join e.subject su order by e.id")
+    List<EnrollmentSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @Query(RESPONSE + "order by e.id")
+    List<EnrollmentResponseDTO> findAllResponses();
+
+
+    // export: cursor forward-only (Stream do Hibernate) lendo 1000 linhas por ida ao banco
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(RESPONSE + "order by e.id")
+    Stream<EnrollmentResponseDTO> streamAllForExport();
+
+    @Query("select new com.example.studentcourse.dto.GradeAggregateDTO(" +
+            "count(e), count(e.grade), avg(e.grade), min(e.grade), max(e.grade), sum(e.grade * e.grade), " +
+            "sum(case when e.grade >= :passingGrade then 1 else 0 end), " +
+            "sum(case when e.grade < :passingGrade then 1 else 0 end)) " +
+            "from Enrollment e where e.subject.id = :subjectId")
+    GradeAggregateDTO aggregateGrades(@Param("subjectId") Long subjectId, @Param("passingGrade") double passingGrade);
+
+    @Query("select new com.example.studentcourse.dto.GradeBucketDTO(cast(floor(e.grade) as Integer), count(e)) " +
+            "from Enrollment e where e.subject.id = :subjectId and e.grade is not null " +
+            "group by cast(floor(e.grade) as Integer)")
+    List<GradeBucketDTO> gradeHistogram(@Param("subjectId") Long subjectId);
 }
@@ -0,0 +1,17 @@
+package com.example.studentcourse.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Optional;
+
+/**
+ * Repositório de entidade com @NaturalId: a busca pela chave natural passa pelo cache de
+ * natural id do Hibernate (chave -> id) e depois pelo cache de segundo nível (id -> entidade),
+ * sem ir ao banco quando os dois acertam. Implementado por NaturalIdJpaRepository.
+ */
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+
+    Optional<T> findBySimpleNaturalId(Object naturalId);
+}
@@ -1,11 +1,13 @@
 package com.example.studentcourse.repository;
 
 import com.example.studentcourse.model.Professor;
-import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
-public interface ProfessorRepository  extends JpaRepository<Professor,Long> {
+public interface ProfessorRepository extends NaturalIdRepository<Professor,Long> {
 
-    Optional<Professor> findByUsername(String username);
+    // username é o @NaturalId: cache de natural id + segundo nível
+    default Optional<Professor> findByUsername(String username) {
+        return findBySimpleNaturalId(username);
+    }
 }
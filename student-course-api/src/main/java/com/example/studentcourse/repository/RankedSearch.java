@@ -0,0 +1,33 @@
+package com.example.studentcourse.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Busca ranqueada em faixas: cada faixa é uma query ordenada pelo próprio índice (prefixo +
+ * ordem da coluna), lida só até o fim da página pedida; as faixas são concatenadas na ordem
+ * de prioridade, sem repetir ids. Nenhuma query ordena todos os resultados antes de paginar.
+ */
+final class RankedSearch {
+
+    private RankedSearch() {}
+
+    static <T> List<T> page(List<Function<Pageable, List<T>>> tiers, Function<T, ?> id, int page, int size) {
+        int end = Math.toIntExact(Math.min((long) (page + 1) * size, Integer.MAX_VALUE));
+        Map<Object, T> merged = new LinkedHashMap<>();
+        for (Function<Pageable, List<T>> tier : tiers) {
+            if (merged.size() >= end) {
+                break;
+            }
+            for (T row : tier.apply(PageRequest.of(0, end))) {
+                merged.putIfAbsent(id.apply(row), row);
+            }
+        }
+        return merged.values().stream().skip((long) page * size).limit(size).toList();
+    }
+}
@@ -1,11 +1,79 @@
 package com.example.studentcourse.repository;
 
+import com.example.studentcourse.dto.StudentListItemDTO;
+import com.example.studentcourse.dto.TranscriptRowDTO;
+import com.example.studentcourse.model.SearchNormalizer;
 import com.example.studentcourse.model.Student;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
-public interface StudentRepository extends JpaRepository<Student,Long> {
+public interface StudentRepository extends NaturalIdRepository<Student,Long> {
 
-    Optional<Student> findByCpf(String cpf);
+    // cpf é o @NaturalId: cache de natural id + segundo nível, sem select quando já carregado
+    default Optional<Student> findByCpf(String cpf) {
+        return findBySimpleNaturalId(cpf);
+    }
+
+    // listagens: constructor expression só com as colunas da linha (StudentListItemDTO)
+    String LIST_ITEM = "select new com.example.studentcourse.dto.StudentListItemDTO(s.id, s.nome, s.cpf, s.email, s.telefone, s.endereco) from Student s ";
+
+    @Query(LIST_ITEM + "order by s.id")
+    List<StudentListItemDTO> findAllListItems();
+
+    @Query(LIST_ITEM + "where s.id > :after order by s.id")
+    List<StudentListItemDTO> findListItemsAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(LIST_ITEM + "order by s.id")
+    Stream<StudentListItemDTO> streamListItems();
+
+    // ETag dos GETs: query cache, invalidado pelo Hibernate a cada escrita em students
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select s.version from Student s where s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // histórico em uma query: left join para o aluno sem matrículas ainda vir numa linha
+    @Query("select new com.example.studentcourse.dto.TranscriptRowDTO(" +
+            "s.id, s.nome, s.cpf, s.email, e.id, su.id, su.codigo, su.nome, su.passingGrade, e.grade) " +
+            "from Student s left join Enrollment e on e.student = s left join e.subject su " +
+            "where s.id = :id order by su.codigo, e.id")
+    List<TranscriptRowDTO> findTranscriptRows(@Param("id") Long id);
+
+    // prefixo nas colunas normalizadas (todas indexadas), em faixas: nome > CPF (só se o termo
+    // parece CPF) > e-mail; dentro da faixa o valor exato vem primeiro, por ser o menor com o prefixo
+    default List<StudentListItemDTO> search(String term, int page, int size) {
+        String prefix = SearchNormalizer.likePrefix(term);
+        String cpfPrefix = SearchNormalizer.cpfPrefix(term);
+        List<Function<Pageable, List<StudentListItemDTO>>> tiers = new ArrayList<>();
+        tiers.add(pageable -> searchByNome(prefix, pageable));
+        if (cpfPrefix != null) {
+            tiers.add(pageable -> searchByCpf(cpfPrefix, pageable));
+        }
+        tiers.add(pageable -> searchByEmail(prefix, pageable));
+        return RankedSearch.page(tiers, student -> student.id, page, size);
+    }
+
+    @Query(LIST_ITEM + "where s.nomeSearch like :prefix escape '!' order by s.nomeSearch, s.id")
+    List<StudentListItemDTO> searchByNome(@Param("prefix") String prefix, Pageable pageable);
+
+    // cpf_search só tem dígitos: prefixo sem caracteres de LIKE para escapar
+    @Query(LIST_ITEM + "where s.cpfSearch like :prefix order by s.cpfSearch, s.id")
+    List<StudentListItemDTO> searchByCpf(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query(LIST_ITEM + "where s.emailSearch like :prefix escape '!' order by s.emailSearch, s.id")
+    List<StudentListItemDTO> searchByEmail(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query("select s.id from Student s where s.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
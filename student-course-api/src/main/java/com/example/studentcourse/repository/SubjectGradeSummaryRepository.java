@@ -0,0 +1,41 @@
+package com.example.studentcourse.repository;
+
+import com.example.studentcourse.model.SubjectGradeSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SubjectGradeSummaryRepository extends JpaRepository<SubjectGradeSummary, Long> {
+
+    String RECOMPUTE = "select new com.example.studentcourse.model.SubjectGradeSummary(su.id, count(e), count(e.grade), " +
+            "sum(case when e.grade >= coalesce(su.passingGrade, :defaultPassingGrade) then 1 else 0 end), " +
+            "sum(case when e.grade < coalesce(su.passingGrade, :defaultPassingGrade) then 1 else 0 end), " +
+            "sum(e.grade)) " +
+            "from Subject su left join Enrollment e on e.subject = su ";
+
+    // delta atômico no banco: escritas concorrentes na mesma disciplina não perdem incrementos
+    @Modifying
+    @Query("update SubjectGradeSummary s set s.enrolled = s.enrolled + :enrolled, s.graded = s.graded + :graded, " +
+            "s.approved = s.approved + :approved, s.failed = s.failed + :failed, s.gradeSum = s.gradeSum + :gradeSum " +
+            "where s.subjectId = :subjectId")
+    int applyDelta(@Param("subjectId") Long subjectId, @Param("enrolled") long enrolled, @Param("graded") long graded,
+                   @Param("approved") long approved, @Param("failed") long failed, @Param("gradeSum") double gradeSum);
+
+    // select ... for update: trava a linha antes da recontagem (ver SubjectGradeSummaryService.rebuild)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from SubjectGradeSummary s where s.subjectId = :subjectId")
+    Optional<SubjectGradeSummary> findByIdForUpdate(@Param("subjectId") Long subjectId);
+
+    @Query("select su.id from Subject su order by su.id")
+    List<Long> findAllSubjectIds();
+
+    @Query(RECOMPUTE + "where su.id = :subjectId group by su.id")
+    Optional<SubjectGradeSummary> recompute(@Param("subjectId") Long subjectId,
+                                            @Param("defaultPassingGrade") double defaultPassingGrade);
+}
@@ -1,11 +1,49 @@
 package com.example.studentcourse.repository;
 
+import com.example.studentcourse.dto.SubjectResponseDTO;
+import com.example.studentcourse.model.SearchNormalizer;
 import com.example.studentcourse.model.Subject;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface SubjectRepository extends JpaRepository<Subject,Long> {
+public interface SubjectRepository extends NaturalIdRepository<Subject,Long> {
 
-    Optional<Subject> findByCodigo(String codigo);
+    // codigo é o @NaturalId (sem cache do Hibernate: quem chama é o SubjectService, que tem cache próprio)
+    default Optional<Subject> findByCodigo(String codigo) {
+        return findBySimpleNaturalId(codigo);
+    }
+
+    // listagens fora do cache: constructor expression sem as colunas de busca
+    String RESPONSE = "select new com.example.studentcourse.dto.SubjectResponseDTO(s.id, s.nome, s.codigo, s.passingGrade, s.version) " +
+            "from Subject s ";
+
+    @Query(RESPONSE + "where s.id > :after order by s.id")
+    List<SubjectResponseDTO> findResponsesAfter(@Param("after") Long after, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE + "order by s.id")
+    Stream<SubjectResponseDTO> streamResponses();
+
+    // prefixo nas colunas normalizadas (indexadas), em faixas: código > nome; dentro da faixa
+    // o valor exato vem primeiro, por ser o menor com o prefixo
+    default List<SubjectResponseDTO> search(String term, int page, int size) {
+        String prefix = SearchNormalizer.likePrefix(term);
+        return RankedSearch.<SubjectResponseDTO>page(List.of(
+                pageable -> searchByCodigo(prefix, pageable),
+                pageable -> searchByNome(prefix, pageable)), subject -> subject.id, page, size);
+    }
+
+    @Query(RESPONSE + "where s.codigoSearch like :prefix escape '!' order by s.codigoSearch, s.id")
+    List<SubjectResponseDTO> searchByCodigo(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query(RESPONSE + "where s.nomeSearch like :prefix escape '!' order by s.nomeSearch, s.id")
+    List<SubjectResponseDTO> searchByNome(@Param("prefix") String prefix, Pageable pageable);
 }
@@ -0,0 +1,104 @@
+package com.example.studentcourse.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Emite e valida tokens de acesso assinados com HMAC-SHA256, sem IdP externo.
+ * Formato: base64url(username).expiraEmEpochSegundos.base64url(assinatura)
+ * A validação só faz o HMAC, não consulta o ProfessorRepository.
+ */
+@Service
+public class AccessTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenService.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public AccessTokenService(@Value("${app.security.token.secret:}") String secret,
+                              @Value("${app.security.token.ttl:15m}") Duration ttl) {
+        this(secret, ttl, Clock.systemUTC());
+    }
+
+    AccessTokenService(String secret, Duration ttl, Clock clock) {
+        this.key = new SecretKeySpec(secretBytes(secret), HMAC_ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public IssuedToken issue(String username) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        String payload = ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8)) + "." + expiresAt.getEpochSecond();
+        return new IssuedToken(payload + "." + ENCODER.encodeToString(sign(payload)), ttl.toSeconds());
+    }
+
+    // devolve o username quando a assinatura confere e o token não expirou
+    public Optional<String> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int signatureStart = token.lastIndexOf('.');
+        int expiryStart = token.lastIndexOf('.', signatureStart - 1);
+        if (expiryStart <= 0 || signatureStart <= expiryStart + 1) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, signatureStart);
+        try {
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return Optional.empty();
+            }
+            long expiresAt = Long.parseLong(token.substring(expiryStart + 1, signatureStart));
+            if (clock.instant().getEpochSecond() >= expiresAt) {
+                return Optional.empty();
+            }
+            return Optional.of(new String(DECODER.decode(token.substring(0, expiryStart)), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC not available", ex);
+        }
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            // DEV ONLY: chave aleatória por execução; tokens não sobrevivem a restart nem valem entre instâncias
+            log.warn("app.security.token.secret not set, using a random key for this run");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        return secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public record IssuedToken(String value, long expiresInSeconds) {}
+}
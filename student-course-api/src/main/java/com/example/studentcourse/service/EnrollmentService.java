@@ -1,73 +1,207 @@
 package com.example.studentcourse.service;
 
+import com.example.studentcourse.dto.BatchEnrollmentResultDTO;
+import com.example.studentcourse.dto.EnrollmentResponseDTO;
+import com.example.studentcourse.dto.EnrollmentSummaryDTO;
+import com.example.studentcourse.dto.StudentListItemDTO;
+import com.example.studentcourse.exception.ConflictException;
+import com.example.studentcourse.model.CollectionVersion;
 import com.example.studentcourse.model.Enrollment;
 import com.example.studentcourse.model.Student;
 import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.repository.CollectionVersionRepository;
 import com.example.studentcourse.repository.EnrollmentRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class EnrollmentService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final EnrollmentRepository enrollmentRepository;
     private final StudentService studentService;
     private final SubjectService subjectService;
+    private final OptimisticRetry optimisticRetry;
+    private final SubjectGradeSummaryService gradeSummaryService;
+    private final CollectionVersionRepository collectionVersionRepository;
 
-    public EnrollmentService(EnrollmentRepository enrollmentRepository, StudentService studentService, SubjectService subjectService) {
+    public EnrollmentService(EnrollmentRepository enrollmentRepository, StudentService studentService, SubjectService subjectService,
+                             OptimisticRetry optimisticRetry, SubjectGradeSummaryService gradeSummaryService,
+                             CollectionVersionRepository collectionVersionRepository) {
         this.enrollmentRepository = enrollmentRepository;
         this.studentService = studentService;
         this.subjectService = subjectService;
+        this.optimisticRetry = optimisticRetry;
+        this.gradeSummaryService = gradeSummaryService;
+        this.collectionVersionRepository = collectionVersionRepository;
     }
 
+    // só o insert: disciplina vem do cache, aluno é uma referência (sem select) e aluno inexistente ou
+    // matrícula repetida caem nas constraints fk_enrollments_student / uk_enrollments_student_subject
     @Transactional
     public Enrollment enroll(Long studentId, Long subjectId) {
-        Student student = studentService.findById(studentId);
         Subject subject = subjectService.findById(subjectId);
-        enrollmentRepository.findByStudentIdAndSubjectId(studentId, subjectId).ifPresent(e ->{
-            throw new IllegalArgumentException("Student already registered in the subject ( Aluno já cadastrado na disciplina ) ");
-        });
-        Enrollment enrollment = new Enrollment(student, subject);
-        return enrollmentRepository.save(enrollment);
+        Enrollment enrollment = enrollmentRepository.saveAndFlush(new Enrollment(studentService.getReference(studentId), subject));
+        gradeSummaryService.enrolled(subject, 1);
+        return enrollment;
     }
 
+    // valida alunos e matrículas existentes com 2 queries por conjunto e insere tudo
+    // de uma vez (JDBC batch, ids vindos da sequence em blocos de 50)
     @Transactional
+    public List<BatchEnrollmentResultDTO> enrollBatch(Long subjectId, List<Long> studentIds) {
+        if (studentIds == null || studentIds.isEmpty()) {
+            throw new IllegalArgumentException("No students informed ( Nenhum aluno informado )");
+        }
+        if (studentIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch limited to " + MAX_BATCH_SIZE + " students ( Lote limitado a " + MAX_BATCH_SIZE + " alunos )");
+        }
+        Subject subject = subjectService.findById(subjectId);
+        List<Long> requestedIds = studentIds.stream().filter(Objects::nonNull).distinct().toList();
+        Set<Long> existingIds = new HashSet<>(studentService.findExistingIds(requestedIds));
+        Set<Long> enrolledIds = new HashSet<>(enrollmentRepository.findEnrolledStudentIds(subjectId, requestedIds));
+
+        List<BatchEnrollmentResultDTO> results = new ArrayList<>(studentIds.size());
+        List<BatchEnrollmentResultDTO> createdResults = new ArrayList<>();
+        List<Enrollment> toInsert = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (Long studentId : studentIds) {
+            if (studentId == null || !existingIds.contains(studentId)) {
+                results.add(new BatchEnrollmentResultDTO(studentId, BatchEnrollmentResultDTO.STUDENT_NOT_FOUND, null,
+                        "Student not found ( Aluno não encontrado )"));
+            } else if (!seen.add(studentId)) {
+                results.add(new BatchEnrollmentResultDTO(studentId, BatchEnrollmentResultDTO.DUPLICATE, null,
+                        "Student repeated in the batch ( Aluno repetido no lote )"));
+            } else if (enrolledIds.contains(studentId)) {
+                results.add(new BatchEnrollmentResultDTO(studentId, BatchEnrollmentResultDTO.ALREADY_ENROLLED, null,
+                        "Student already registered in the subject ( Aluno já cadastrado na disciplina )"));
+            } else {
+                BatchEnrollmentResultDTO created = new BatchEnrollmentResultDTO(studentId, BatchEnrollmentResultDTO.CREATED, null, null);
+                results.add(created);
+                createdResults.add(created);
+                toInsert.add(new Enrollment(studentService.getReference(studentId), subject));
+            }
+        }
+
+        List<Enrollment> saved = enrollmentRepository.saveAll(toInsert);
+        enrollmentRepository.flush();
+        gradeSummaryService.enrolled(subject, saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            createdResults.get(i).enrollmentId = saved.get(i).getId();
+        }
+        return results;
+    }
+
     public Enrollment setGrade(Long enrollmentId, Double grade) {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId).orElseThrow(() ->
-                new IllegalArgumentException("Registration not found ( Matrícula não encontrada )"));
-        enrollment.setGrade(grade);
-        return enrollmentRepository.save(enrollment);
+        return setGrade(enrollmentId, grade, null);
     }
 
-    public List<Student> getApprovedBySubject(Long subjectId) {
-        return enrollmentRepository.findBySubjectId(subjectId).stream()
-                .filter(en -> en.getGrade() != null && en.getGrade() >= 7.0)
-                .map(Enrollment::getStudent).collect(Collectors.toList());
+    // expectedVersion: versão que o cliente leu (opcional); se mudou, 409 com o estado atual.
+    // Sem ela, um commit concorrente na mesma matrícula é repetido pelo OptimisticRetry
+    public Enrollment setGrade(Long enrollmentId, Double grade, Long expectedVersion) {
+        try {
+            return optimisticRetry.execute(() -> {
+                Enrollment enrollment = findEnrollment(enrollmentId);
+                OptimisticRetry.requireVersion(expectedVersion, enrollment.getVersion(), enrollment);
+                Double oldGrade = enrollment.getGrade();
+                enrollment.setGrade(grade);
+                Enrollment saved = enrollmentRepository.saveAndFlush(enrollment);
+                // delta depois do flush: sem linha de resumo, a recontagem já enxerga esta nota
+                gradeSummaryService.gradeChanged(saved.getSubject(), oldGrade, grade);
+                return saved;
+            });
+        } catch (OptimisticLockingFailureException ex) {
+            throw new ConflictException(ConflictException.MESSAGE, enrollmentRepository.findById(enrollmentId).orElse(null));
+        }
     }
 
-    public List<Student> getFailedBySubject(Long subjectId) {
-        return enrollmentRepository.findBySubjectId(subjectId).stream()
-                .filter(en -> en.getGrade() != null && en.getGrade() < 7.0)
-                .map(Enrollment::getStudent).collect(Collectors.toList());
+    // filtro por nota e join com o aluno feitos no banco, usando a nota mínima da disciplina;
+    // sem página, todos os alunos (GET sem page/size)
+    public List<StudentListItemDTO> getApprovedBySubject(Long subjectId) {
+        return enrollmentRepository.findApprovedStudents(subjectId, Subject.DEFAULT_PASSING_GRADE, Pageable.unpaged());
+    }
+
+    public List<StudentListItemDTO> getFailedBySubject(Long subjectId) {
+        return enrollmentRepository.findFailedStudents(subjectId, Subject.DEFAULT_PASSING_GRADE, Pageable.unpaged());
+    }
+
+    public List<StudentListItemDTO> getApprovedBySubject(Long subjectId, int page, int size) {
+        return enrollmentRepository.findApprovedStudents(subjectId, Subject.DEFAULT_PASSING_GRADE, pageRequest(page, size));
+    }
+
+    public List<StudentListItemDTO> getFailedBySubject(Long subjectId, int page, int size) {
+        return enrollmentRepository.findFailedStudents(subjectId, Subject.DEFAULT_PASSING_GRADE, pageRequest(page, size));
+    }
+
+    // uma única query com join, sem N+1 de Student/Subject
+    public List<EnrollmentSummaryDTO> findSummaries(int page, int size) {
+        return enrollmentRepository.findAllSummaries(pageRequest(page, size));
+    }
+
+    // ids de aluno/disciplina vêm das chaves estrangeiras, sem join nem entidades carregadas
+    public List<EnrollmentResponseDTO> findAll() {
+        return enrollmentRepository.findAllResponses();
+    }
+
+    // percorre todas as matrículas com o cursor aberto; as linhas são DTOs (fora do
+    // contexto de persistência), então a memória não cresce junto com a tabela
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<EnrollmentResponseDTO> consumer) {
+        try (Stream<EnrollmentResponseDTO> enrollments = enrollmentRepository.streamAllForExport()) {
+            enrollments.forEach(consumer);
+        }
+    }
+
+    // GET /api/enrollments só traz os ids de aluno/disciplina: o ETag depende só de enrollments
+    public Long collectionVersion() {
+        return collectionVersionRepository.findVersion(CollectionVersion.ENROLLMENTS).orElse(null);
     }
 
-    @Transactional
     public Enrollment updateEnrollment(Long enrollmentId, Long newStudentId, Long newSubjectId) {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId).orElseThrow(() ->
-                new IllegalArgumentException("Registration not found ( Matrícula não encontrada )"));
-        Student student = studentService.findById(newStudentId);
-        Subject subject = subjectService.findById(newSubjectId);
-        enrollmentRepository.findByStudentIdAndSubjectId(newStudentId, newSubjectId).ifPresent(existingEnrollment ->{
-            if(!existingEnrollment.getId().equals(enrollmentId)){
-                throw new IllegalArgumentException("There is already an enrollment for this student in this subject ( Já existe matrícula para esse aluno nessa disciplina )");
-            }
-        });
-        enrollment.setStudent(student);
-        enrollment.setSubject(subject);
-        return enrollmentRepository.save(enrollment);
+        return updateEnrollment(enrollmentId, newStudentId, newSubjectId, null);
+    }
+
+    public Enrollment updateEnrollment(Long enrollmentId, Long newStudentId, Long newSubjectId, Long expectedVersion) {
+        try {
+            return optimisticRetry.execute(() -> {
+                Enrollment enrollment = findEnrollment(enrollmentId);
+                OptimisticRetry.requireVersion(expectedVersion, enrollment.getVersion(), enrollment);
+                Student student = studentService.findById(newStudentId);
+                Subject subject = subjectService.findById(newSubjectId);
+                enrollmentRepository.findByStudentIdAndSubjectId(newStudentId, newSubjectId).ifPresent(existingEnrollment ->{
+                    if(!existingEnrollment.getId().equals(enrollmentId)){
+                        throw new IllegalArgumentException("There is already an enrollment for this student in this subject ( Já existe matrícula para esse aluno nessa disciplina )");
+                    }
+                });
+                Subject oldSubject = enrollment.getSubject();
+                enrollment.setStudent(student);
+                enrollment.setSubject(subject);
+                Enrollment saved = enrollmentRepository.saveAndFlush(enrollment);
+                // deltas depois do flush, como em setGrade
+                if (!oldSubject.getId().equals(subject.getId())) {
+                    gradeSummaryService.unenrolled(oldSubject, saved.getGrade());
+                    gradeSummaryService.enrolled(subject, 1);
+                    gradeSummaryService.gradeChanged(subject, null, saved.getGrade());
+                }
+                return saved;
+            });
+        } catch (OptimisticLockingFailureException ex) {
+            throw new ConflictException(ConflictException.MESSAGE, enrollmentRepository.findById(enrollmentId).orElse(null));
+        }
     }
 
     @Transactional
@@ -75,5 +209,17 @@ public class EnrollmentService {
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId).orElseThrow(() ->
                 new IllegalArgumentException("Registration not found ( Matrícula não encontrada )"));
         enrollmentRepository.delete(enrollment);
+        enrollmentRepository.flush();
+        gradeSummaryService.unenrolled(enrollment.getSubject(), enrollment.getGrade());
+    }
+
+    private Enrollment findEnrollment(Long enrollmentId) {
+        return enrollmentRepository.findById(enrollmentId).orElseThrow(() ->
+                new IllegalArgumentException("Registration not found ( Matrícula não encontrada )"));
+    }
+
+    private static Pageable pageRequest(int page, int size) {
+        int pageSize = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        return PageRequest.of(Math.max(page, 0), pageSize);
     }
 }
@@ -0,0 +1,217 @@
+package com.example.studentcourse.service;
+
+import com.example.studentcourse.dto.GradeImportResultDTO;
+import com.example.studentcourse.model.Enrollment;
+import com.example.studentcourse.model.SearchNormalizer;
+import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.repository.EnrollmentRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Importação de notas por CSV. O arquivo é lido linha a linha e aplicado em blocos
+ * de CHUNK_SIZE linhas, cada bloco na sua própria transação (1 select + updates em batch).
+ * Se outra transação alterar uma das matrículas do bloco, o bloco é repetido (OptimisticRetry);
+ * esgotadas as tentativas, as linhas do bloco voltam como rejeitadas e a importação continua.
+ * CPF é comparado só pelos dígitos (cpf_search), formatado ou não.
+ *
+ * Cabeçalho obrigatório: "cpf,grade" ou "enrollmentId,grade" (também aceita "nota",
+ * "matricula" e separador ';' com vírgula decimal, como o Excel em pt-BR exporta).
+ */
+@Service
+public class GradeImportService {
+
+    public static final int CHUNK_SIZE = 500;
+    public static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final SubjectService subjectService;
+    private final EntityManager entityManager;
+    private final SubjectGradeSummaryService gradeSummaryService;
+    private final OptimisticRetry optimisticRetry;
+
+    public GradeImportService(EnrollmentRepository enrollmentRepository, SubjectService subjectService,
+                              EntityManager entityManager, OptimisticRetry optimisticRetry,
+                              SubjectGradeSummaryService gradeSummaryService) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.subjectService = subjectService;
+        this.entityManager = entityManager;
+        this.gradeSummaryService = gradeSummaryService;
+        this.optimisticRetry = optimisticRetry;
+    }
+
+    public GradeImportResultDTO importGrades(Long subjectId, InputStream csv) throws IOException {
+        Subject subject = subjectService.findById(subjectId);
+        GradeImportResultDTO result = new GradeImportResultDTO();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Empty file ( Arquivo vazio )");
+        }
+        char separator = header.indexOf(';') >= 0 ? ';' : ',';
+        KeyType keyType = KeyType.fromHeader(header, separator);
+
+        List<GradeRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        int lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            result.rows++;
+            GradeRow row = parseRow(lineNumber, line, separator, keyType, result);
+            if (row != null) {
+                chunk.add(row);
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                applyChunk(subject, keyType, chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            applyChunk(subject, keyType, chunk, result);
+        }
+        return result;
+    }
+
+    private GradeRow parseRow(int lineNumber, String line, char separator, KeyType keyType, GradeImportResultDTO result) {
+        int split = line.indexOf(separator);
+        if (split < 0) {
+            reject(result, lineNumber, line, "Expected 2 columns ( Esperadas 2 colunas )");
+            return null;
+        }
+        String key = unquote(line.substring(0, split));
+        String gradeText = unquote(line.substring(split + 1));
+        if (key.isEmpty()) {
+            reject(result, lineNumber, key, "Missing key ( Identificador vazio )");
+            return null;
+        }
+        if (keyType == KeyType.CPF) {
+            String digits = SearchNormalizer.digits(key);
+            if (digits == null) {
+                reject(result, lineNumber, key, "Invalid CPF ( CPF inválido )");
+                return null;
+            }
+            key = digits;
+        } else {
+            try {
+                key = String.valueOf(Long.parseLong(key));
+            } catch (NumberFormatException ex) {
+                reject(result, lineNumber, key, "Invalid enrollment id ( Matrícula inválida )");
+                return null;
+            }
+        }
+        Double grade;
+        try {
+            grade = gradeText.isEmpty() ? null : Double.valueOf(separator == ';' ? gradeText.replace(',', '.') : gradeText);
+        } catch (NumberFormatException ex) {
+            reject(result, lineNumber, key, "Invalid grade ( Nota inválida )");
+            return null;
+        }
+        if (grade != null && (grade.isNaN() || grade < 0.0 || grade > 10.0)) {
+            reject(result, lineNumber, key, "Grade must be between 0 and 10 ( Nota deve estar entre 0 e 10 )");
+            return null;
+        }
+        return new GradeRow(lineNumber, key, grade);
+    }
+
+    private void applyChunk(Subject subject, KeyType keyType, List<GradeRow> rows, GradeImportResultDTO result) {
+        ChunkOutcome outcome;
+        try {
+            // cada tentativa relê as matrículas e monta o próprio resultado: nada é somado até o commit
+            outcome = optimisticRetry.execute(() -> updateChunk(subject, keyType, rows));
+        } catch (OptimisticLockingFailureException ex) {
+            for (GradeRow row : rows) {
+                reject(result, row.line(), row.key(),
+                        "Enrollment changed concurrently, row not applied ( Matrícula alterada por outra operação, linha não aplicada )");
+            }
+            return;
+        }
+        result.updated += outcome.updated();
+        for (GradeRow row : outcome.notFound()) {
+            reject(result, row.line(), row.key(), "Enrollment not found in this subject ( Matrícula não encontrada na disciplina )");
+        }
+    }
+
+    private ChunkOutcome updateChunk(Subject subject, KeyType keyType, List<GradeRow> rows) {
+        Map<String, Enrollment> byKey = new HashMap<>();
+        if (keyType == KeyType.CPF) {
+            List<String> cpfs = rows.stream().map(GradeRow::key).distinct().toList();
+            for (Enrollment enrollment : enrollmentRepository.findForGradeImportByCpf(subject.getId(), cpfs)) {
+                byKey.put(SearchNormalizer.digits(enrollment.getStudent().getCpf()), enrollment);
+            }
+        } else {
+            List<Long> ids = rows.stream().map(row -> Long.valueOf(row.key())).distinct().toList();
+            for (Enrollment enrollment : enrollmentRepository.findForGradeImportByIds(subject.getId(), ids)) {
+                byKey.put(String.valueOf(enrollment.getId()), enrollment);
+            }
+        }
+        List<GradeRow> notFound = new ArrayList<>();
+        List<SubjectGradeSummaryService.GradeChange> changes = new ArrayList<>(rows.size());
+        for (GradeRow row : rows) {
+            Enrollment enrollment = byKey.get(row.key());
+            if (enrollment == null) {
+                notFound.add(row);
+                continue;
+            }
+            changes.add(new SubjectGradeSummaryService.GradeChange(enrollment.getGrade(), row.grade()));
+            enrollment.setGrade(row.grade());
+        }
+        // updates saem em batch no flush; limpar evita acumular entidades entre blocos
+        enrollmentRepository.flush();
+        // contadores da disciplina: um delta por bloco, na mesma transação e depois das notas gravadas
+        if (!changes.isEmpty()) {
+            gradeSummaryService.gradesChanged(subject, changes);
+        }
+        entityManager.clear();
+        return new ChunkOutcome(changes.size(), notFound);
+    }
+
+    private static void reject(GradeImportResultDTO result, int line, String key, String reason) {
+        result.rejected++;
+        if (result.rejections.size() < MAX_REPORTED_REJECTIONS) {
+            result.rejections.add(new GradeImportResultDTO.RejectedRow(line, key, reason));
+        }
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            return trimmed.substring(1, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+
+    private enum KeyType {
+        CPF, ENROLLMENT_ID;
+
+        static KeyType fromHeader(String header, char separator) {
+            String first = unquote(header.split(String.valueOf(separator), 2)[0])
+                    .replace("\uFEFF", "").toLowerCase(Locale.ROOT);
+            return switch (first) {
+                case "cpf" -> CPF;
+                case "enrollmentid", "enrollment_id", "matricula" -> ENROLLMENT_ID;
+                default -> throw new IllegalArgumentException(
+                        "Invalid CSV header, expected cpf,grade or enrollmentId,grade ( Cabeçalho inválido )");
+            };
+        }
+    }
+
+    private record GradeRow(int line, String key, Double grade) {}
+
+    private record ChunkOutcome(int updated, List<GradeRow> notFound) {}
+}
@@ -0,0 +1,68 @@
+package com.example.studentcourse.service;
+
+import com.example.studentcourse.exception.ConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Read-modify-write com concorrência otimista: executa o bloco numa transação e, se o commit
+ * falhar porque outra transação gravou a mesma linha antes (@Version), repete com uma pausa curta
+ * e aleatória. Cada tentativa relê a entidade. Deve ser chamado fora de uma transação, senão
+ * as tentativas fariam parte da mesma transação externa.
+ */
+@Component
+public class OptimisticRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffNanos;
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${app.concurrency.optimistic-retry.max-attempts:3}") int maxAttempts,
+                           @Value("${app.concurrency.optimistic-retry.backoff:10ms}") Duration backoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffNanos = backoff.toNanos();
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    throw ex;
+                }
+                pause(attempt);
+            }
+        }
+    }
+
+    // o cliente mandou a versão que leu e ela não é mais a atual: não adianta repetir
+    public static void requireVersion(Long expectedVersion, Long currentVersion, Object current) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new ConflictException(ConflictException.MESSAGE, current);
+        }
+    }
+
+    // backoff exponencial com jitter, para as tentativas concorrentes não colidirem de novo
+    private void pause(int attempt) {
+        if (backoffNanos <= 0) {
+            return;
+        }
+        long bound = backoffNanos << Math.min(attempt - 1, 6);
+        try {
+            Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(bound / 2, bound + 1)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException(ConflictException.MESSAGE, null);
+        }
+    }
+}
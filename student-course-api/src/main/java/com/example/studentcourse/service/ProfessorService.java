@@ -11,18 +11,22 @@ public class ProfessorService {
 
     private final ProfessorRepository professorRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ProfessorUserDetailsService userDetailsService;
 
-    public ProfessorService(ProfessorRepository professorRepository, PasswordEncoder passwordEncoder) {
+    public ProfessorService(ProfessorRepository professorRepository, PasswordEncoder passwordEncoder,
+                            ProfessorUserDetailsService userDetailsService) {
         this.professorRepository = professorRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
     }
 
+    // insert direto: username repetido cai na constraint uk_professor_username (400 no RestExceptionHandler).
+    // Depois do commit tira do cache o "não existe" de tentativas de login anteriores
     public Professor create(Professor professor) {
-        professorRepository.findByUsername(professor.getUsername()).ifPresent(e -> {
-            throw new IllegalArgumentException("User already exists ( Usuário já existe )");
-        });
         professor.setPassword(passwordEncoder.encode(professor.getPassword()));
-        return professorRepository.save(professor);
+        Professor saved = professorRepository.save(professor);
+        userDetailsService.evict(saved.getUsername());
+        return saved;
     }
 
     @Transactional
@@ -34,6 +38,7 @@ public class ProfessorService {
                 throw new IllegalArgumentException("Username already existente ( Username já existente )");
             });
         }
+        userDetailsService.evict(existingProfessor.getUsername(), professorUpdate.getUsername());
         existingProfessor.setUsername(professorUpdate.getUsername());
         if (professorUpdate.getPassword() != null && !professorUpdate.getPassword().isBlank()) {
             existingProfessor.setPassword(passwordEncoder.encode(professorUpdate.getPassword()));
@@ -46,6 +51,7 @@ public class ProfessorService {
     public void delete(Long id) {
         Professor existingProfessor = professorRepository.findById(id).orElseThrow(() ->
                 new IllegalArgumentException("Professor not found ( Professor não encontrado )"));
+        userDetailsService.evict(existingProfessor.getUsername());
         professorRepository.delete(existingProfessor);
     }
 }
@@ -0,0 +1,90 @@
+package com.example.studentcourse.service;
+
+import com.example.studentcourse.repository.ProfessorRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * UserDetailsService do HTTP Basic com cache em memória (tamanho máximo + TTL),
+ * para a autenticação não ir ao banco a cada requisição. Username inexistente também
+ * é guardado (NOT_FOUND, com TTL curto), para tentativas repetidas não irem ao banco.
+ * Métricas em /actuator/metrics/cache.gets?tag=cache:professorUserDetails
+ */
+@Service
+public class ProfessorUserDetailsService implements UserDetailsService {
+
+    public static final String CACHE_NAME = "professorUserDetails";
+
+    // marcador de "não existe": o Caffeine não guarda null vindo do loader
+    private static final CachedCredentials NOT_FOUND = new CachedCredentials(null, null);
+
+    private final ProfessorRepository professorRepository;
+    private final Cache<String, CachedCredentials> cache;
+
+    public ProfessorUserDetailsService(ProfessorRepository professorRepository,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.security.user-cache.max-size:1000}") long maxSize,
+                                       @Value("${app.security.user-cache.ttl:5m}") Duration ttl,
+                                       @Value("${app.security.user-cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.professorRepository = professorRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<String, CachedCredentials>writing(
+                        (username, credentials) -> credentials == NOT_FOUND ? negativeTtl : ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        CachedCredentials credentials = cache.get(username, this::load);
+        if (credentials == NOT_FOUND) {
+            throw new UsernameNotFoundException("Professor not found");
+        }
+        // sempre um User novo: o ProviderManager apaga a senha do principal depois de autenticar
+        return User.withUsername(credentials.username())
+                .password(credentials.password()) // senha em texto (NoOp)
+                .roles("PROFESSOR")
+                .build();
+    }
+
+    // remove na hora e de novo depois do commit, para uma leitura concorrente
+    // não recolocar no cache os dados antigos enquanto a transação ainda está aberta
+    public void evict(String... usernames) {
+        List<String> keys = Arrays.stream(usernames).filter(Objects::nonNull).toList();
+        cache.invalidateAll(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidateAll(keys);
+                }
+            });
+        }
+    }
+
+    private CachedCredentials load(String username) {
+        return professorRepository.findByUsername(username)
+                .map(professor -> new CachedCredentials(professor.getUsername(), professor.getPassword()))
+                .orElse(NOT_FOUND);
+    }
+
+    private record CachedCredentials(String username, String password) {}
+}
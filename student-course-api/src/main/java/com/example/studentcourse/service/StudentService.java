@@ -1,52 +1,158 @@
 package com.example.studentcourse.service;
 
+import com.example.studentcourse.dto.KeysetPage;
+import com.example.studentcourse.dto.StudentListItemDTO;
+import com.example.studentcourse.dto.TranscriptDTO;
+import com.example.studentcourse.dto.TranscriptRowDTO;
+import com.example.studentcourse.exception.ConflictException;
+import com.example.studentcourse.model.SearchNormalizer;
 import com.example.studentcourse.model.Student;
+import com.example.studentcourse.model.Subject;
 import com.example.studentcourse.repository.StudentRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class StudentService {
 
     private final StudentRepository studentRepository;
+    private final OptimisticRetry optimisticRetry;
 
-    public StudentService(StudentRepository studentRepository) {
+    public StudentService(StudentRepository studentRepository, OptimisticRetry optimisticRetry) {
         this.studentRepository = studentRepository;
+        this.optimisticRetry = optimisticRetry;
     }
 
+    // insert direto: CPF repetido cai na constraint uk_students_cpf (400 no RestExceptionHandler)
     public Student create(Student student) {
-        studentRepository.findByCpf(student.getCpf()).ifPresent(e -> {
-            throw new IllegalStateException("CPF already registered ( CPF já cadastrado )");
-        });
         return studentRepository.save(student);
     }
 
-    public List<Student> findAll() {
-        return studentRepository.findAll();
+    // listagens em DTO direto da query: só as colunas da linha, nada gerenciado pelo Hibernate
+    public List<StudentListItemDTO> findAll() {
+        return studentRepository.findAllListItems();
+    }
+
+    public KeysetPage<StudentListItemDTO> findPage(Long after, Integer limit) {
+        int size = KeysetPage.clampLimit(limit);
+        List<StudentListItemDTO> students = studentRepository.findListItemsAfter(after == null ? 0L : after, PageRequest.of(0, size));
+        return KeysetPage.of(students, size, student -> student.id);
+    }
+
+    // prefixo sem acento/caixa em nome, CPF (com ou sem pontuação) e e-mail; as queries usam os índices das colunas *_search
+    public List<StudentListItemDTO> search(String query, int page, int size) {
+        String term = SearchNormalizer.requireTerm(query);
+        return studentRepository.search(term, Math.max(page, 0), KeysetPage.clampLimit(size));
+    }
+
+    // percorre a tabela com cursor do banco; DTOs não entram no persistence context,
+    // então a memória não cresce junto com a tabela
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<StudentListItemDTO> consumer) {
+        try (Stream<StudentListItemDTO> students = studentRepository.streamListItems()) {
+            students.forEach(consumer);
+        }
     }
 
     public Student findById(Long id) {
         return studentRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Student not found ( Aluno não encontrado )"));
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    public TranscriptDTO getTranscript(Long id) {
+        List<TranscriptRowDTO> rows = studentRepository.findTranscriptRows(id);
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("Student not found ( Aluno não encontrado )");
+        }
+        TranscriptRowDTO first = rows.get(0);
+        TranscriptDTO transcript = new TranscriptDTO();
+        transcript.studentId = first.studentId;
+        transcript.nome = first.studentNome;
+        transcript.cpf = first.studentCpf;
+        transcript.email = first.studentEmail;
+        transcript.subjects = new ArrayList<>(rows.size());
+
+        double gradeSum = 0;
+        int graded = 0;
+        for (TranscriptRowDTO row : rows) {
+            if (row.enrollmentId == null) {
+                continue; // aluno sem matrículas
+            }
+            TranscriptDTO.Entry entry = new TranscriptDTO.Entry();
+            entry.enrollmentId = row.enrollmentId;
+            entry.subjectId = row.subjectId;
+            entry.codigo = row.subjectCodigo;
+            entry.nome = row.subjectNome;
+            entry.grade = row.grade;
+            entry.passingGrade = row.passingGrade != null ? row.passingGrade : Subject.DEFAULT_PASSING_GRADE;
+            if (row.grade == null) {
+                entry.status = TranscriptDTO.Status.PENDING;
+                transcript.pending++;
+            } else {
+                gradeSum += row.grade;
+                graded++;
+                if (row.grade >= entry.passingGrade) {
+                    entry.status = TranscriptDTO.Status.APPROVED;
+                    transcript.approved++;
+                } else {
+                    entry.status = TranscriptDTO.Status.FAILED;
+                    transcript.failed++;
+                }
+            }
+            transcript.subjects.add(entry);
+        }
+        // média só das notas lançadas; null enquanto nenhuma nota saiu
+        transcript.average = graded > 0 ? gradeSum / graded : null;
+        return transcript;
+    }
+
+    // só a coluna version, para o ETag (sem carregar a entidade)
+    public Optional<Long> findVersion(Long id) {
+        return studentRepository.findVersionById(id);
+    }
+
+    // um único select para validar a existência de vários alunos
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        return studentRepository.findExistingIds(ids);
+    }
+
+    // proxy sem select, para usar como chave estrangeira
+    public Student getReference(Long id) {
+        return studentRepository.getReferenceById(id);
+    }
+
+    // studentUpdate.version (opcional) é a versão que o cliente leu; se mudou, 409 com o estado atual
     public Student update(Long id, Student studentUpdate) {
-        Student existingStudent = findById(id);
+        try {
+            return optimisticRetry.execute(() -> {
+                Student existingStudent = findById(id);
+                OptimisticRetry.requireVersion(studentUpdate.getVersion(), existingStudent.getVersion(), existingStudent);
 
-        if(!existingStudent.getCpf().equals(studentUpdate.getCpf())) {
-            studentRepository.findByCpf(studentUpdate.getCpf()).ifPresent(e -> {
-                throw new IllegalArgumentException("CPF alreadys registered ( CPF já cadastrado )");
+                if(!existingStudent.getCpf().equals(studentUpdate.getCpf())) {
+                    studentRepository.findByCpf(studentUpdate.getCpf()).ifPresent(e -> {
+                        throw new IllegalArgumentException("CPF alreadys registered ( CPF já cadastrado )");
+                    });
+                }
+
+                existingStudent.setNome(studentUpdate.getNome());
+                existingStudent.setCpf(studentUpdate.getCpf());
+                existingStudent.setEmail(studentUpdate.getEmail());
+                existingStudent.setTelefone(studentUpdate.getTelefone());
+                existingStudent.setEndereco(studentUpdate.getEndereco());
+                return studentRepository.save(existingStudent);
             });
+        } catch (OptimisticLockingFailureException ex) {
+            throw new ConflictException(ConflictException.MESSAGE, studentRepository.findById(id).orElse(null));
         }
-
-        existingStudent.setNome(studentUpdate.getNome());
-        existingStudent.setCpf(studentUpdate.getCpf());
-        existingStudent.setEmail(studentUpdate.getEmail());
-        existingStudent.setTelefone(studentUpdate.getTelefone());
-        existingStudent.setEndereco(studentUpdate.getEndereco());
-        return studentRepository.save(existingStudent);
     }
 
     @Transactional
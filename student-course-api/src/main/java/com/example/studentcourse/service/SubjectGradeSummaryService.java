@@ -0,0 +1,163 @@
+package com.example.studentcourse.service;
+
+import com.example.studentcourse.dto.SubjectGradeSummaryDTO;
+import com.example.studentcourse.dto.SummaryRebuildResultDTO;
+import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.model.SubjectGradeSummary;
+import com.example.studentcourse.repository.SubjectGradeSummaryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Contadores por disciplina (matriculados, com nota, aprovados, reprovados e soma das notas)
+ * atualizados por delta na mesma transação de cada escrita em enrollments, de modo que
+ * GET /api/subjects/{id}/summary é uma leitura por chave, qualquer que seja o tamanho da turma.
+ * O recálculo completo (rebuildAll) confere e corrige divergências, uma disciplina por transação,
+ * com a linha de resumo travada durante a recontagem.
+ */
+@Service
+public class SubjectGradeSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(SubjectGradeSummaryService.class);
+
+    private final SubjectGradeSummaryRepository summaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter corrections;
+
+    public SubjectGradeSummaryService(SubjectGradeSummaryRepository summaryRepository, MeterRegistry meterRegistry,
+                                      PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.corrections = Counter.builder("app.grade-summary.corrections")
+                .description("Subject summaries found out of sync by the rebuild and corrected")
+                .register(meterRegistry);
+    }
+
+    // disciplina nova começa zerada
+    @Transactional
+    public void initialize(Subject subject) {
+        summaryRepository.save(new SubjectGradeSummary(subject.getId()));
+    }
+
+    @Transactional
+    public void enrolled(Subject subject, int count) {
+        apply(subject.getId(), new Delta(count, 0, 0, 0, 0.0));
+    }
+
+    @Transactional
+    public void gradeChanged(Subject subject, Double oldGrade, Double newGrade) {
+        gradesChanged(subject, List.of(new GradeChange(oldGrade, newGrade)));
+    }
+
+    // várias notas da mesma disciplina (importação CSV): um único update no resumo
+    @Transactional
+    public void gradesChanged(Subject subject, List<GradeChange> changes) {
+        Delta delta = Delta.NONE;
+        for (GradeChange change : changes) {
+            delta = delta.plus(contribution(subject, change.newGrade(), 1)).plus(contribution(subject, change.oldGrade(), -1));
+        }
+        apply(subject.getId(), delta);
+    }
+
+    // matrícula removida da disciplina (delete ou troca de disciplina), com a nota que tinha
+    @Transactional
+    public void unenrolled(Subject subject, Double grade) {
+        apply(subject.getId(), new Delta(-1, 0, 0, 0, 0.0).plus(contribution(subject, grade, -1)));
+    }
+
+    @Transactional(readOnly = true)
+    public SubjectGradeSummaryDTO get(Long subjectId) {
+        return summaryRepository.findById(subjectId)
+                .map(SubjectGradeSummaryDTO::of)
+                .orElseThrow(() -> new IllegalArgumentException("Subject not found ( Disciplina não encontrada )"));
+    }
+
+    // a nota mínima da disciplina mudou: aprovados/reprovados precisam ser recontados
+    @Transactional
+    public void rebuild(Long subjectId) {
+        recount(subjectId);
+    }
+
+    // recontagem de todas as disciplinas a partir de enrollments, uma transação curta por disciplina
+    // (a linha travada só bloqueia as escritas daquela turma); só grava as divergentes
+    public SummaryRebuildResultDTO rebuildAll() {
+        List<Long> subjectIds = summaryRepository.findAllSubjectIds();
+        List<Long> corrected = new ArrayList<>();
+        for (Long subjectId : subjectIds) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> recount(subjectId)))) {
+                corrected.add(subjectId);
+            }
+        }
+        if (!corrected.isEmpty()) {
+            corrections.increment(corrected.size());
+            log.warn("Grade summaries out of sync for {} subjects, corrected: {}", corrected.size(), corrected);
+        }
+        return new SummaryRebuildResultDTO(subjectIds.size(), corrected.size());
+    }
+
+    // trava a linha (for update) antes de contar: um delta concorrente ou já terminou (e a contagem,
+    // feita depois, o enxerga) ou espera este commit e soma por cima; nenhum incremento se perde
+    private boolean recount(Long subjectId) {
+        Optional<SubjectGradeSummary> stored = summaryRepository.findByIdForUpdate(subjectId);
+        Optional<SubjectGradeSummary> expected = summaryRepository.recompute(subjectId, Subject.DEFAULT_PASSING_GRADE);
+        if (expected.isEmpty()) {
+            return false; // disciplina removida
+        }
+        if (stored.isEmpty()) {
+            summaryRepository.save(expected.get());
+            return true;
+        }
+        if (stored.get().sameCountsAs(expected.get())) {
+            return false;
+        }
+        stored.get().copyCountsFrom(expected.get());
+        return true;
+    }
+
+    private void apply(Long subjectId, Delta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        int updated = summaryRepository.applyDelta(subjectId, delta.enrolled, delta.graded, delta.approved, delta.failed, delta.gradeSum);
+        if (updated == 0) {
+            // disciplina sem linha de resumo (criada fora da API): conta do zero; os chamadores aplicam
+            // o delta depois do flush da escrita, então a contagem já a inclui
+            recount(subjectId);
+        }
+    }
+
+    private static Delta contribution(Subject subject, Double grade, int sign) {
+        if (grade == null) {
+            return Delta.NONE;
+        }
+        double passingGrade = subject.getPassingGrade() != null ? subject.getPassingGrade() : Subject.DEFAULT_PASSING_GRADE;
+        boolean approved = grade >= passingGrade;
+        return new Delta(0, sign, approved ? sign : 0, approved ? 0 : sign, sign * grade);
+    }
+
+    public record GradeChange(Double oldGrade, Double newGrade) {}
+
+    private record Delta(long enrolled, long graded, long approved, long failed, double gradeSum) {
+
+        static final Delta NONE = new Delta(0, 0, 0, 0, 0.0);
+
+        Delta plus(Delta other) {
+            return new Delta(enrolled + other.enrolled, graded + other.graded, approved + other.approved,
+                    failed + other.failed, gradeSum + other.gradeSum);
+        }
+
+        boolean isEmpty() {
+            return enrolled == 0 && graded == 0 && approved == 0 && failed == 0 && gradeSum == 0.0;
+        }
+    }
+}
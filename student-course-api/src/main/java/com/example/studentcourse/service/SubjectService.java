@@ -1,50 +1,133 @@
 package com.example.studentcourse.service;
 
+import com.example.studentcourse.dto.KeysetPage;
+import com.example.studentcourse.dto.SubjectResponseDTO;
+import com.example.studentcourse.exception.ConflictException;
+import com.example.studentcourse.model.CollectionVersion;
+import com.example.studentcourse.model.SearchNormalizer;
 import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.repository.CollectionVersionRepository;
 import com.example.studentcourse.repository.SubjectRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class SubjectService {
 
+    public static final String SUBJECTS_CACHE = "subjects";
+    public static final String SUBJECTS_BY_CODIGO_CACHE = "subjectsByCodigo";
+    public static final String SUBJECT_CATALOG_CACHE = "subjectCatalog";
+
     private final SubjectRepository subjectRepository;
+    private final OptimisticRetry optimisticRetry;
+    private final SubjectGradeSummaryService gradeSummaryService;
+    private final CollectionVersionRepository collectionVersionRepository;
 
-    public SubjectService(SubjectRepository subjectRepository) {
+    public SubjectService(SubjectRepository subjectRepository, OptimisticRetry optimisticRetry,
+                          SubjectGradeSummaryService gradeSummaryService, CollectionVersionRepository collectionVersionRepository) {
         this.subjectRepository = subjectRepository;
+        this.optimisticRetry = optimisticRetry;
+        this.gradeSummaryService = gradeSummaryService;
+        this.collectionVersionRepository = collectionVersionRepository;
     }
 
+    // insert direto: código repetido cai na constraint uk_subjects_codigo (400 no RestExceptionHandler)
+    @CacheEvict(cacheNames = SUBJECT_CATALOG_CACHE, allEntries = true)
+    @Transactional
     public Subject create(Subject subject) {
-        subjectRepository.findByCodigo(subject.getCodigo()).ifPresent(e -> {
-            throw new IllegalArgumentException("Subject already exists ( Código já existe )");
-        });
-        return subjectRepository.save(subject);
+        Subject created = subjectRepository.save(subject);
+        gradeSummaryService.initialize(created);
+        return created;
     }
 
+    @Cacheable(cacheNames = SUBJECT_CATALOG_CACHE, key = "'all'")
     public List<Subject> findAll() {
         return subjectRepository.findAll();
     }
 
+    // sem cache: tem que refletir o banco para o ETag do GET /api/subjects (linha de collection_version)
+    public Long collectionVersion() {
+        return collectionVersionRepository.findVersion(CollectionVersion.SUBJECTS).orElse(null);
+    }
+
+    public KeysetPage<SubjectResponseDTO> findPage(Long after, Integer limit) {
+        int size = KeysetPage.clampLimit(limit);
+        List<SubjectResponseDTO> subjects = subjectRepository.findResponsesAfter(after == null ? 0L : after, PageRequest.of(0, size));
+        return KeysetPage.of(subjects, size, subject -> subject.id);
+    }
+
+    // sem cache: termos variam demais; a query usa os índices das colunas *_search
+    public List<SubjectResponseDTO> search(String query, int page, int size) {
+        String term = SearchNormalizer.requireTerm(query);
+        return subjectRepository.search(term, Math.max(page, 0), KeysetPage.clampLimit(size));
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<SubjectResponseDTO> consumer) {
+        try (Stream<SubjectResponseDTO> subjects = subjectRepository.streamResponses()) {
+            subjects.forEach(consumer);
+        }
+    }
+
+    // também usado em todo enroll/updateEnrollment; update() chama direto (sem proxy) e lê do banco
+    @Cacheable(cacheNames = SUBJECTS_CACHE, key = "#id")
     public Subject findById(Long id) {
         return subjectRepository.findById(id).orElseThrow(() -> new
                 IllegalArgumentException("Subject not found ( Disciplina não encontrada )"));
     }
 
-    @Transactional
+    @Cacheable(cacheNames = SUBJECTS_BY_CODIGO_CACHE, key = "#codigo")
+    public Subject findByCodigo(String codigo) {
+        return subjectRepository.findByCodigo(codigo).orElseThrow(() -> new
+                IllegalArgumentException("Subject not found ( Disciplina não encontrada )"));
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = SUBJECTS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = SUBJECTS_BY_CODIGO_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = SUBJECT_CATALOG_CACHE, allEntries = true)
+    })
+    // subjectUpdate.version (opcional) é a versão que o cliente leu; se mudou, 409 com o estado atual
     public Subject update(Long id, Subject subjectUpdate) {
-        Subject existingSubject = findById(id);
-        if(!existingSubject.getCodigo().equals(subjectUpdate.getCodigo())) {
-            subjectRepository.findByCodigo(subjectUpdate.getCodigo()).ifPresent(e -> {
-                throw new IllegalArgumentException("Subject already exists ( Código já existe )");
+        try {
+            return optimisticRetry.execute(() -> {
+                Subject existingSubject = findById(id);
+                OptimisticRetry.requireVersion(subjectUpdate.getVersion(), existingSubject.getVersion(), existingSubject);
+                if(!existingSubject.getCodigo().equals(subjectUpdate.getCodigo())) {
+                    subjectRepository.findByCodigo(subjectUpdate.getCodigo()).ifPresent(e -> {
+                        throw new IllegalArgumentException("Subject already exists ( Código já existe )");
+                    });
+                }
+                existingSubject.setNome(subjectUpdate.getNome());
+                existingSubject.setCodigo(subjectUpdate.getCodigo());
+                boolean passingGradeChanged = !Objects.equals(existingSubject.getPassingGrade(), subjectUpdate.getPassingGrade());
+                existingSubject.setPassingGrade(subjectUpdate.getPassingGrade());
+                Subject saved = subjectRepository.save(existingSubject);
+                if (passingGradeChanged) {
+                    gradeSummaryService.rebuild(id);
+                }
+                return saved;
             });
+        } catch (OptimisticLockingFailureException ex) {
+            throw new ConflictException(ConflictException.MESSAGE, subjectRepository.findById(id).orElse(null));
         }
-        existingSubject.setNome(subjectUpdate.getNome());
-        existingSubject.setCodigo(subjectUpdate.getCodigo());
-        return subjectRepository.save(existingSubject);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = SUBJECTS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = SUBJECTS_BY_CODIGO_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = SUBJECT_CATALOG_CACHE, allEntries = true)
+    })
     @Transactional
     public void delete(Long id) {
         Subject existingSubject = findById(id);
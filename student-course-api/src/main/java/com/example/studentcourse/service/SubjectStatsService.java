@@ -0,0 +1,69 @@
+package com.example.studentcourse.service;
+
+import com.example.studentcourse.dto.GradeAggregateDTO;
+import com.example.studentcourse.dto.GradeBucketDTO;
+import com.example.studentcourse.dto.SubjectStatsDTO;
+import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.repository.EnrollmentRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estatísticas de notas de uma disciplina calculadas no banco (2 queries de agregação),
+ * sem trafegar a lista de matrículas.
+ */
+@Service
+public class SubjectStatsService {
+
+    static final int HISTOGRAM_BUCKETS = 10;
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final SubjectService subjectService;
+
+    public SubjectStatsService(EnrollmentRepository enrollmentRepository, SubjectService subjectService) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.subjectService = subjectService;
+    }
+
+    @Transactional(readOnly = true)
+    public SubjectStatsDTO getStats(Long subjectId) {
+        Subject subject = subjectService.findById(subjectId);
+        double passingGrade = subject.getPassingGrade() != null ? subject.getPassingGrade() : Subject.DEFAULT_PASSING_GRADE;
+        GradeAggregateDTO aggregate = enrollmentRepository.aggregateGrades(subjectId, passingGrade);
+
+        SubjectStatsDTO stats = new SubjectStatsDTO();
+        stats.subjectId = subjectId;
+        stats.passingGrade = passingGrade;
+        stats.enrolled = aggregate.enrolled;
+        stats.graded = aggregate.graded;
+        stats.mean = aggregate.mean;
+        stats.min = aggregate.min;
+        stats.max = aggregate.max;
+        stats.approved = aggregate.approved;
+        stats.failed = aggregate.failed;
+        if (aggregate.graded > 0 && aggregate.mean != null && aggregate.sumOfSquares != null) {
+            // desvio padrão populacional: sqrt(E[x²] - E[x]²)
+            double variance = aggregate.sumOfSquares / aggregate.graded - aggregate.mean * aggregate.mean;
+            stats.standardDeviation = Math.sqrt(Math.max(variance, 0.0));
+        }
+        stats.histogram = histogram(enrollmentRepository.gradeHistogram(subjectId));
+        return stats;
+    }
+
+    // completa as faixas vazias e junta a nota 10 na faixa [9, 10]
+    private static List<GradeBucketDTO> histogram(List<GradeBucketDTO> rows) {
+        long[] counts = new long[HISTOGRAM_BUCKETS];
+        for (GradeBucketDTO row : rows) {
+            int bucket = Math.min(Math.max(row.from, 0), HISTOGRAM_BUCKETS - 1);
+            counts[bucket] += row.count;
+        }
+        List<GradeBucketDTO> buckets = new ArrayList<>(HISTOGRAM_BUCKETS);
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            buckets.add(new GradeBucketDTO(i, counts[i]));
+        }
+        return buckets;
+    }
+}
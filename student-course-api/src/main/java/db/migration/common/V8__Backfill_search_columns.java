@@ -0,0 +1,100 @@
+package db.migration.common;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Preenche uma única vez as colunas *_search das linhas gravadas antes delas existirem (bancos
+ * vindos do schema legado e cpf_search da V7). A normalização é a do SearchNormalizer na época
+ * desta versão, copiada aqui para a migration não mudar junto com ele; é Java, por isso não é SQL. Em lotes, por id (keyset) e via JDBC, sem incrementar @Version;
+ * linhas novas já gravam as colunas no @PrePersist/@PreUpdate das entidades.
+ */
+public class V8__Backfill_search_columns extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V8__Backfill_search_columns.class);
+
+    static final int BATCH_SIZE = 500;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D+");
+
+    private record SearchColumn(String source, String target, UnaryOperator<String> normalizer) {}
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        int students = backfill(jdbcTemplate, "students", List.of(
+                new SearchColumn("nome", "nome_search", V8__Backfill_search_columns::normalize),
+                new SearchColumn("email", "email_search", V8__Backfill_search_columns::normalize),
+                new SearchColumn("cpf", "cpf_search", V8__Backfill_search_columns::digits)));
+        int subjects = backfill(jdbcTemplate, "subjects", List.of(
+                new SearchColumn("nome", "nome_search", V8__Backfill_search_columns::normalize),
+                new SearchColumn("codigo", "codigo_search", V8__Backfill_search_columns::normalize)));
+        if (students + subjects > 0) {
+            log.info("Search columns backfilled for {} students and {} subjects", students, subjects);
+        }
+    }
+
+    // cópia de SearchNormalizer.normalize: minúsculas, sem acentos e com espaços colapsados
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String plain = DIACRITICS.matcher(decomposed).replaceAll("");
+        return SPACES.matcher(plain.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    // cópia de SearchNormalizer.digits: só os dígitos, vazio vira null
+    private static String digits(String value) {
+        if (value == null) {
+            return null;
+        }
+        String digits = NON_DIGITS.matcher(value).replaceAll("");
+        return digits.isEmpty() ? null : digits;
+    }
+
+    // percorre por id só as linhas com alguma coluna de busca vazia e origem preenchida
+    private static int backfill(JdbcTemplate jdbcTemplate, String table, List<SearchColumn> columns) {
+        String sources = columns.stream().map(SearchColumn::source).collect(Collectors.joining(", "));
+        String pending = columns.stream()
+                .map(column -> "(" + column.source() + " is not null and " + column.target() + " is null)")
+                .collect(Collectors.joining(" or "));
+        String assignments = columns.stream().map(column -> column.target() + " = ?").collect(Collectors.joining(", "));
+        String select = "select id, " + sources + " from " + table + " where id > ? and (" + pending + ")" +
+                " order by id limit " + BATCH_SIZE;
+        String update = "update " + table + " set " + assignments + " where id = ?";
+        int total = 0;
+        long lastId = 0;
+        while (true) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            jdbcTemplate.query(select, rs -> {
+                Object[] row = new Object[columns.size() + 1];
+                for (int i = 0; i < columns.size(); i++) {
+                    row[i] = columns.get(i).normalizer().apply(rs.getString(i + 2));
+                }
+                row[columns.size()] = rs.getLong(1);
+                batch.add(row);
+            }, lastId);
+            if (batch.isEmpty()) {
+                return total;
+            }
+            jdbcTemplate.batchUpdate(update, batch);
+            total += batch.size();
+            lastId = (Long) batch.get(batch.size() - 1)[columns.size()];
+        }
+    }
+}
@@ -0,0 +1,62 @@
+-- Schema inicial. SQL comum a H2 e PostgreSQL.
+-- Idempotente: bancos criados antes das migrations (ddl-auto=update) recebem baseline na versão 0
+-- e passam por aqui também; as tabelas já existem e só ganham as colunas e a sequence que faltam.
+-- Nomes das constraints desses bancos: postgresql/V1_1.
+
+create table if not exists professor (
+    id       bigint generated by default as identity primary key,
+    username varchar(255) not null,
+    password varchar(255),
+    nome     varchar(255),
+    constraint uk_professor_username unique (username)
+);
+
+create table if not exists students (
+    id           bigint generated by default as identity primary key,
+    nome         varchar(255),
+    cpf          varchar(255),
+    email        varchar(255),
+    telefone     varchar(255),
+    endereco     varchar(255),
+    nome_search  varchar(255),
+    email_search varchar(255),
+    version      bigint default 0,
+    constraint uk_students_cpf unique (cpf)
+);
+
+alter table students add column if not exists nome_search varchar(255);
+alter table students add column if not exists email_search varchar(255);
+alter table students add column if not exists version bigint default 0;
+
+create table if not exists subjects (
+    id            bigint generated by default as identity primary key,
+    nome          varchar(255),
+    codigo        varchar(255),
+    passing_grade double precision,
+    nome_search   varchar(255),
+    codigo_search varchar(255),
+    version       bigint default 0,
+    constraint uk_subjects_codigo unique (codigo)
+);
+
+alter table subjects add column if not exists passing_grade double precision;
+alter table subjects add column if not exists nome_search varchar(255);
+alter table subjects add column if not exists codigo_search varchar(255);
+alter table subjects add column if not exists version bigint default 0;
+
+-- incremento igual ao allocationSize do @SequenceGenerator (pooled optimizer);
+-- em banco legado o V1_1 (PostgreSQL) avança a sequence para depois do maior id
+create sequence if not exists enrollments_seq start with 1 increment by 50;
+
+create table if not exists enrollments (
+    id         bigint primary key,
+    student_id bigint not null,
+    subject_id bigint not null,
+    grade      double precision,
+    version    bigint default 0,
+    constraint uk_enrollments_student_subject unique (student_id, subject_id),
+    constraint fk_enrollments_student foreign key (student_id) references students (id),
+    constraint fk_enrollments_subject foreign key (subject_id) references subjects (id)
+);
+
+alter table enrollments add column if not exists version bigint default 0;
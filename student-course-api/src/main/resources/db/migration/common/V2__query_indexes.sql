@@ -0,0 +1,11 @@
+-- Índices secundários das queries da aplicação.
+-- enrollments(student_id) não precisa de índice próprio: o prefixo de uk_enrollments_student_subject já atende.
+
+-- findBySubjectId, aprovados/reprovados, estatísticas e histograma da disciplina (filtro + nota no índice)
+create index if not exists ix_enrollments_subject_grade on enrollments (subject_id, grade);
+
+-- busca por prefixo (B-tree; no PostgreSQL o V3 adiciona os trigram)
+create index if not exists ix_students_nome_search on students (nome_search);
+create index if not exists ix_students_email_search on students (email_search);
+create index if not exists ix_subjects_nome_search on subjects (nome_search);
+create index if not exists ix_subjects_codigo_search on subjects (codigo_search);
@@ -0,0 +1,13 @@
+-- Trilha de auditoria gravada em lote pelo AuditLog (sem entidade JPA).
+create table audit_log (
+    id          bigint generated by default as identity primary key,
+    occurred_at timestamp    not null,
+    username    varchar(100) not null,
+    action      varchar(16)  not null,
+    entity_type varchar(32)  not null,
+    entity_id   bigint,
+    details     varchar(255)
+);
+
+-- histórico de um registro: where entity_type = ? and entity_id = ? order by occurred_at
+create index ix_audit_log_entity on audit_log (entity_type, entity_id, occurred_at);
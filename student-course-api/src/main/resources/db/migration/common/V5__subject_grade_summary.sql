@@ -0,0 +1,22 @@
+-- Contadores por disciplina mantidos por delta (SubjectGradeSummaryService).
+create table subject_grade_summary (
+    subject_id bigint primary key,
+    enrolled   bigint           default 0 not null,
+    graded     bigint           default 0 not null,
+    approved   bigint           default 0 not null,
+    failed     bigint           default 0 not null,
+    grade_sum  double precision default 0 not null,
+    constraint fk_grade_summary_subject foreign key (subject_id) references subjects (id) on delete cascade
+);
+
+-- carga inicial a partir das matrículas existentes (mesma regra de aprovação: nota mínima da disciplina ou 7.0)
+insert into subject_grade_summary (subject_id, enrolled, graded, approved, failed, grade_sum)
+select su.id,
+       count(e.id),
+       count(e.grade),
+       coalesce(sum(case when e.grade >= coalesce(su.passing_grade, 7.0) then 1 else 0 end), 0),
+       coalesce(sum(case when e.grade < coalesce(su.passing_grade, 7.0) then 1 else 0 end), 0),
+       coalesce(sum(e.grade), 0)
+from subjects su
+left join enrollments e on e.subject_id = su.id
+group by su.id;
@@ -0,0 +1,9 @@
+-- Versão das listagens com ETag (GET /api/subjects e /api/enrollments): incrementada uma vez
+-- por transação que grava na tabela (CollectionVersionListener) e lida pela chave primária.
+create table collection_version (
+    name    varchar(50)      primary key,
+    version bigint default 0 not null
+);
+
+insert into collection_version (name, version) values ('subjects', 0);
+insert into collection_version (name, version) values ('enrollments', 0);
@@ -0,0 +1,5 @@
+-- CPF só com dígitos para a busca: formatado ou não, o mesmo CPF tem o mesmo valor aqui.
+-- Linhas já existentes são preenchidas pela V8 (migration Java, usa o SearchNormalizer).
+alter table students add column if not exists cpf_search varchar(255);
+
+create index if not exists ix_students_cpf_search on students (cpf_search);
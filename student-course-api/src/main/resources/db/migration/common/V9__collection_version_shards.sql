@@ -0,0 +1,24 @@
+-- Versão das listagens em 16 linhas por listagem (shards 0..15): cada transação incrementa um
+-- shard sorteado e a leitura soma os shards, então gravações concorrentes quase nunca disputam
+-- a mesma linha. O shard 0 herda a versão atual; a soma continua crescendo a partir dela.
+create table collection_version_shards (
+    name    varchar(50)      not null,
+    shard   int              not null,
+    version bigint default 0 not null,
+    constraint pk_collection_version primary key (name, shard)
+);
+
+insert into collection_version_shards (name, shard, version)
+select name, 0, version from collection_version;
+
+insert into collection_version_shards (name, shard, version) values
+    ('subjects', 1, 0), ('subjects', 2, 0), ('subjects', 3, 0), ('subjects', 4, 0), ('subjects', 5, 0),
+    ('subjects', 6, 0), ('subjects', 7, 0), ('subjects', 8, 0), ('subjects', 9, 0), ('subjects', 10, 0),
+    ('subjects', 11, 0), ('subjects', 12, 0), ('subjects', 13, 0), ('subjects', 14, 0), ('subjects', 15, 0),
+    ('enrollments', 1, 0), ('enrollments', 2, 0), ('enrollments', 3, 0), ('enrollments', 4, 0), ('enrollments', 5, 0),
+    ('enrollments', 6, 0), ('enrollments', 7, 0), ('enrollments', 8, 0), ('enrollments', 9, 0), ('enrollments', 10, 0),
+    ('enrollments', 11, 0), ('enrollments', 12, 0), ('enrollments', 13, 0), ('enrollments', 14, 0), ('enrollments', 15, 0);
+
+drop table collection_version;
+
+alter table collection_version_shards rename to collection_version;
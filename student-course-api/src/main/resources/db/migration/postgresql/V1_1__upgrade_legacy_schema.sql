@@ -0,0 +1,38 @@
+-- Bancos criados pelo ddl-auto=update (antes das migrations): as constraints têm nomes gerados
+-- pelo Hibernate (ukXXXX/fkXXXX), mas o RestExceptionHandler traduz os erros pelo nome (uk_*/fk_*).
+-- Renomeia a constraint com as mesmas colunas; em banco criado pelo V1 não há o que renomear.
+do $$
+declare
+    spec record;
+    legacy_name text;
+begin
+    for spec in select * from (values
+            ('professor', 'u', 'uk_professor_username', array['username']),
+            ('students', 'u', 'uk_students_cpf', array['cpf']),
+            ('subjects', 'u', 'uk_subjects_codigo', array['codigo']),
+            ('enrollments', 'u', 'uk_enrollments_student_subject', array['student_id', 'subject_id']),
+            ('enrollments', 'f', 'fk_enrollments_student', array['student_id']),
+            ('enrollments', 'f', 'fk_enrollments_subject', array['subject_id'])
+        ) as s(table_name, constraint_type, constraint_name, columns)
+    loop
+        select c.conname into legacy_name
+        from pg_constraint c
+        where c.conrelid = spec.table_name::regclass
+          and c.contype = spec.constraint_type::"char"
+          and c.conname <> spec.constraint_name
+          and (select array_agg(a.attname::text order by a.attname::text)
+               from unnest(c.conkey) as k(attnum)
+               join pg_attribute a on a.attrelid = c.conrelid and a.attnum = k.attnum)
+              = (select array_agg(col order by col) from unnest(spec.columns) as col)
+        limit 1;
+        if legacy_name is not null
+                and not exists (select 1 from pg_constraint where conrelid = spec.table_name::regclass
+                                and conname = spec.constraint_name) then
+            execute format('alter table %I rename constraint %I to %I', spec.table_name, legacy_name, spec.constraint_name);
+        end if;
+    end loop;
+end $$;
+
+-- o legado gerava o id das matrículas por identity; a sequence (pooled, de 50 em 50) tem de
+-- começar depois do maior id existente. Sem matrículas, nada muda.
+select setval('enrollments_seq', max(id) + 50) from enrollments having max(id) is not null;
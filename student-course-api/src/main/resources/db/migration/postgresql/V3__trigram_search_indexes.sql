@@ -0,0 +1,9 @@
+-- Busca por prefixo no PostgreSQL: B-tree só atende LIKE 'x%' com collation C,
+-- os índices trigram (pg_trgm) atendem em qualquer collation.
+create extension if not exists pg_trgm;
+
+create index if not exists ix_students_nome_trgm on students using gin (nome_search gin_trgm_ops);
+create index if not exists ix_students_email_trgm on students using gin (email_search gin_trgm_ops);
+create index if not exists ix_students_cpf_trgm on students using gin (cpf gin_trgm_ops);
+create index if not exists ix_subjects_nome_trgm on subjects using gin (nome_search gin_trgm_ops);
+create index if not exists ix_subjects_codigo_trgm on subjects using gin (codigo_search gin_trgm_ops);
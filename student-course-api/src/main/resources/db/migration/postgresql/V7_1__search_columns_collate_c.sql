@@ -0,0 +1,16 @@
+-- Busca em faixas: cada faixa faz LIKE 'x%' e order by na mesma coluna. Com collation C o
+-- B-tree atende os dois (lê na ordem do índice e para no fim da página, sem sort); as colunas
+-- *_search já são normalizadas (minúsculas, sem acento), então a ordem por bytes serve.
+alter table students alter column nome_search type varchar(255) collate "C";
+alter table students alter column email_search type varchar(255) collate "C";
+alter table students alter column cpf_search type varchar(255) collate "C";
+alter table subjects alter column nome_search type varchar(255) collate "C";
+alter table subjects alter column codigo_search type varchar(255) collate "C";
+
+-- os GIN trigram da V3 ficam sem uso: a busca é só por prefixo nas colunas acima (B-tree),
+-- e o cpf bruto não é mais pesquisado (a busca usa cpf_search)
+drop index if exists ix_students_nome_trgm;
+drop index if exists ix_students_email_trgm;
+drop index if exists ix_students_cpf_trgm;
+drop index if exists ix_subjects_nome_trgm;
+drop index if exists ix_subjects_codigo_trgm;
@@ -0,0 +1,75 @@
+package com.example.studentcourse.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the latency-driven (AIMD) AdaptiveConcurrencyLimiter.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(400);
+
+    @Test
+    void tryAcquire_atLimit_shouldRejectUntilARequestCompletes() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET, 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(-1, System.nanoTime());
+        assertThat(limiter.inFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void release_fastWhileBusy_shouldGrowLimitUpToMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 3, TARGET, 0.5);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(FAST, System.nanoTime());
+            limiter.release(FAST, System.nanoTime());
+        }
+
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+
+    @Test
+    void release_fastWhileIdle_shouldKeepLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, TARGET, 0.5);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, System.nanoTime());
+
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void release_slow_shouldBackOffOncePerWindowAndNotBelowMin() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 3, 100, TARGET, 0.5);
+        long now = System.nanoTime();
+
+        // a burst of slow responses inside one window halves the limit only once
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+            limiter.release(SLOW, now);
+        }
+        assertThat(limiter.limit()).isEqualTo(8);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, now + TARGET);
+        assertThat(limiter.limit()).isEqualTo(4);
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, now + 2 * TARGET);
+        assertThat(limiter.limit()).isEqualTo(3);
+    }
+}
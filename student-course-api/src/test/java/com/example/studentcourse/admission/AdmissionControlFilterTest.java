@@ -0,0 +1,94 @@
+package com.example.studentcourse.admission;
+
+import com.example.studentcourse.service.SubjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Admission control through the full filter chain: the IP bucket is charged before Spring
+ * Security (bad credentials run out of it), authenticated requests move to their own
+ * principal bucket. Buckets barely refill (one token every 1000 s), so the bursts are exact.
+ */
+@SpringBootTest(properties = {
+        "app.rate-limit.enabled=true",
+        "app.rate-limit.ip.permits-per-second=0.001",
+        "app.rate-limit.ip.burst=3",
+        "app.rate-limit.principal.permits-per-second=0.001",
+        "app.rate-limit.principal.burst=2",
+        "app.cache.subjects.warm-up=false"
+})
+@AutoConfigureMockMvc
+class AdmissionControlFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private SubjectService subjectService;
+
+    @Test
+    @DisplayName("bad Basic credentials are charged to the IP bucket before authentication -> 429 with Retry-After")
+    void badCredentials_shouldBeThrottledBeforeAuthentication() throws Exception {
+        double rejectedBefore = rejected("ip_rate");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(subjects("10.0.0.1").with(httpBasic("nobody", "wrong")))
+                    .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(subjects("10.0.0.1").with(httpBasic("nobody", "wrong")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", matchesPattern("[1-9][0-9]*")));
+
+        assertThat(rejected("ip_rate")).isEqualTo(rejectedBefore + 1);
+    }
+
+    @Test
+    @DisplayName("authenticated requests use per-principal buckets: one professor's 429 does not affect another")
+    void principals_shouldHaveIsolatedBuckets() throws Exception {
+        when(subjectService.findAll()).thenReturn(List.of());
+        double rejectedBefore = rejected("principal_rate");
+
+        // five authenticated requests from one address: more than the IP burst, since the IP token is refunded
+        mockMvc.perform(subjects("10.0.0.2").with(user("alice"))).andExpect(status().isOk());
+        mockMvc.perform(subjects("10.0.0.2").with(user("alice"))).andExpect(status().isOk());
+        mockMvc.perform(subjects("10.0.0.2").with(user("alice")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        mockMvc.perform(subjects("10.0.0.2").with(user("bob"))).andExpect(status().isOk());
+        mockMvc.perform(subjects("10.0.0.2").with(user("bob"))).andExpect(status().isOk());
+
+        assertThat(rejected("principal_rate")).isEqualTo(rejectedBefore + 1);
+    }
+
+    private static MockHttpServletRequestBuilder subjects(String remoteAddr) {
+        return get("/api/subjects").with(request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        });
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("app.admission.rejected").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.studentcourse.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the lock-free (GCRA) TokenBucket, driven by an explicit clock.
+ */
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenReportWaitUntilNextToken() {
+        long now = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(10, 5, now);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(now)).isZero();
+        }
+        // 10 permits/s -> the next token arrives 100 ms later
+        assertThat(bucket.tryAcquire(now)).isEqualTo(SECOND / 10);
+        assertThat(bucket.tryAcquire(now + SECOND / 20)).isEqualTo(SECOND / 20);
+        assertThat(bucket.tryAcquire(now + SECOND / 10)).isZero();
+    }
+
+    @Test
+    void tryAcquire_afterIdlePeriod_shouldRefillOnlyUpToBurst() {
+        long now = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(now);
+        }
+
+        long later = now + 60 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire(later)).isZero();
+        }
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    void tryAcquire_shouldWorkAcrossNanoTimeWrapAround() {
+        long now = Long.MAX_VALUE - SECOND / 20;
+        TokenBucket bucket = new TokenBucket(10, 1, now);
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isPositive();
+        assertThat(bucket.tryAcquire(now + SECOND / 10)).isZero();
+    }
+
+    @Test
+    void refund_shouldReturnTokenButNeverExceedBurst() {
+        long now = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(10, 2, now);
+        bucket.tryAcquire(now);
+        bucket.tryAcquire(now);
+        assertThat(bucket.tryAcquire(now)).isPositive();
+
+        bucket.refund(now);
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isPositive();
+
+        // refunds on a full bucket are ignored
+        long later = now + 60 * SECOND;
+        bucket.refund(later);
+        bucket.refund(later);
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    void tryAcquire_concurrently_shouldNeverAdmitMoreThanBurst() throws Exception {
+        long now = 1_000 * SECOND;
+        TokenBucket bucket = new TokenBucket(1, 100, now);
+        int threads = 8;
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 1_000; i++) {
+                        if (bucket.tryAcquire(now) == 0) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(admitted.get()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.studentcourse.audit;
+
+import com.example.studentcourse.model.Student;
+import com.example.studentcourse.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Audit events are handed to the AuditLog only after their own transaction commits:
+ * one event per committed write, none on rollback, and a REQUIRES_NEW transaction
+ * neither publishes nor inherits the events of the transaction it suspended.
+ */
+@SpringBootTest(properties = "app.cache.subjects.warm-up=false")
+class AuditEntityListenerTest {
+
+    @MockBean
+    private AuditLog auditLog;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private TransactionTemplate requiresNew;
+    private final List<Long> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(studentRepository::deleteById);
+    }
+
+    @Test
+    @DisplayName("commit publishes exactly one event per write")
+    void commit_shouldPublishOneEvent() {
+        Student student = transaction.execute(status -> studentRepository.save(new Student("Audit Commit", "AUD-1", null, null, null)));
+        created.add(student.getId());
+
+        ArgumentCaptor<AuditEvent> event = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditLog, times(1)).publish(event.capture());
+        assertThat(event.getValue().action()).isEqualTo(AuditEvent.Action.CREATE);
+        assertThat(event.getValue().entityType()).isEqualTo("student");
+        assertThat(event.getValue().entityId()).isEqualTo(student.getId());
+    }
+
+    @Test
+    @DisplayName("rollback publishes nothing")
+    void rollback_shouldPublishNothing() {
+        transaction.executeWithoutResult(status -> {
+            studentRepository.saveAndFlush(new Student("Audit Rollback", "AUD-2", null, null, null));
+            status.setRollbackOnly();
+        });
+
+        verify(auditLog, never()).publish(any());
+    }
+
+    @Test
+    @DisplayName("REQUIRES_NEW publishes only its own events, and the outer rollback discards the outer ones")
+    void nestedTransaction_shouldBeIsolated() {
+        transaction.executeWithoutResult(status -> {
+            studentRepository.saveAndFlush(new Student("Audit Outer", "AUD-3", null, null, null));
+
+            Student inner = requiresNew.execute(innerStatus ->
+                    studentRepository.saveAndFlush(new Student("Audit Inner", "AUD-4", null, null, null)));
+            created.add(inner.getId());
+
+            ArgumentCaptor<AuditEvent> event = ArgumentCaptor.forClass(AuditEvent.class);
+            verify(auditLog, times(1)).publish(event.capture());
+            assertThat(event.getValue().entityId()).isEqualTo(inner.getId());
+
+            status.setRollbackOnly();
+        });
+
+        verify(auditLog, times(1)).publish(any());
+    }
+}
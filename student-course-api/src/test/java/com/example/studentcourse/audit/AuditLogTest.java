@@ -0,0 +1,120 @@
+package com.example.studentcourse.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuditLog batching and drop accounting (writer thread not started;
+ * flush() is driven directly).
+ */
+class AuditLogTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditLog auditLog;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        auditLog = new AuditLog(jdbcTemplate, meterRegistry, 4, 2, Duration.ofMillis(10));
+    }
+
+    private AuditEvent event(long id) {
+        return new AuditEvent(Instant.now(), "prof", AuditEvent.Action.CREATE, "student", id, "cpf=" + id);
+    }
+
+    @Test
+    void flush_shouldWriteUpToBatchSizeRowsInOneMultiRowInsert() {
+        List<String> statements = new ArrayList<>();
+        List<Object[]> parameters = new ArrayList<>();
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            statements.add(invocation.getArgument(0));
+            parameters.add((Object[]) invocation.getRawArguments()[1]);
+            return 0;
+        });
+        auditLog.publish(event(1));
+        auditLog.publish(event(2));
+        auditLog.publish(event(3));
+
+        assertThat(auditLog.flush()).isEqualTo(2);
+        assertThat(statements.get(0)).endsWith("values (?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?)");
+        assertThat(parameters.get(0)).hasSize(12);
+        assertThat(parameters.get(0)[4]).isEqualTo(1L);
+        assertThat(parameters.get(0)[10]).isEqualTo(2L);
+
+        assertThat(auditLog.flush()).isEqualTo(1);
+        assertThat(statements.get(1)).endsWith("values (?, ?, ?, ?, ?, ?)");
+        assertThat(auditLog.flush()).isZero();
+        assertThat(meterRegistry.counter("app.audit.events.written").count()).isEqualTo(3);
+    }
+
+    @Test
+    void publish_whenBufferFull_shouldDropAndCount() {
+        for (long i = 0; i < 6; i++) {
+            auditLog.publish(event(i));
+        }
+
+        assertThat(meterRegistry.counter("app.audit.events.published").count()).isEqualTo(4);
+        assertThat(meterRegistry.counter("app.audit.events.dropped", "reason", "buffer_full").count()).isEqualTo(2);
+        assertThat(meterRegistry.get("app.audit.buffer.pending").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void flush_whenInsertFails_shouldCountDroppedEvents() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new DataAccessResourceFailureException("down"));
+        auditLog.publish(event(1));
+
+        assertThat(auditLog.flush()).isEqualTo(1);
+        assertThat(meterRegistry.counter("app.audit.events.dropped", "reason", "write_failed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("app.audit.events.written").count()).isZero();
+    }
+
+    @Test
+    void flush_whenWriteFailsWithUnexpectedException_shouldCountDroppedEvents() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new IllegalStateException("boom"));
+        auditLog.publish(event(1));
+
+        assertThat(auditLog.flush()).isEqualTo(1);
+        assertThat(meterRegistry.counter("app.audit.events.dropped", "reason", "write_failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void writer_shouldKeepRunningAfterAnUnexpectedException() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new IllegalStateException("boom"))
+                .thenReturn(1);
+        auditLog.start();
+        try {
+            auditLog.publish(event(1));
+            awaitCount("app.audit.events.dropped", "reason", "write_failed");
+            auditLog.publish(event(2));
+            awaitCount("app.audit.events.written");
+        } finally {
+            auditLog.stop();
+        }
+
+        assertThat(meterRegistry.counter("app.audit.events.dropped", "reason", "write_failed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("app.audit.events.written").count()).isEqualTo(1);
+    }
+
+    private void awaitCount(String name, String... tags) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.counter(name, tags).count() == 0) {
+            assertThat(System.nanoTime()).as("%s not incremented in time", name).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.studentcourse.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the bounded multi-producer / single-consumer AuditRingBuffer.
+ */
+class AuditRingBufferTest {
+
+    @Test
+    void capacity_isRoundedUpToPowerOfTwo() {
+        assertThat(new AuditRingBuffer<Integer>(5).capacity()).isEqualTo(8);
+        assertThat(new AuditRingBuffer<Integer>(8).capacity()).isEqualTo(8);
+    }
+
+    @Test
+    void offer_whenFull_shouldRejectUntilConsumerDrains() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(99)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(drained).containsExactly(0, 1, 2);
+
+        // freed slots are reused on the next lap, in FIFO order
+        assertThat(buffer.offer(4)).isTrue();
+        drained.clear();
+        buffer.drainTo(drained, 10);
+        assertThat(drained).containsExactly(3, 4);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void concurrentProducers_shouldDeliverEveryAcceptedItemExactlyOnce() throws Exception {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1024);
+        int producers = 8;
+        int perProducer = 20_000;
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    if (!buffer.offer(base + i)) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+
+        Set<Integer> received = new HashSet<>();
+        List<Integer> chunk = new ArrayList<>();
+        while (!pool.isTerminated() || buffer.size() > 0) {
+            chunk.clear();
+            buffer.drainTo(chunk, 256);
+            for (Integer item : chunk) {
+                assertThat(received.add(item)).as("duplicate %s", item).isTrue();
+            }
+        }
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(received.size() + rejected.get()).isEqualTo(producers * perProducer);
+    }
+}
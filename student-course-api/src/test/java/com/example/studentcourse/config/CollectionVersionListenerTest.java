@@ -0,0 +1,109 @@
+package com.example.studentcourse.config;
+
+import com.example.studentcourse.model.CollectionVersion;
+import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.repository.CollectionVersionRepository;
+import com.example.studentcourse.repository.SubjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * collection_version is incremented once per committed transaction that writes the
+ * collection's table, and left untouched by rollbacks and by writes to other tables.
+ * The version is the sum of the collection's shards; each commit bumps one of them.
+ */
+@SpringBootTest(properties = "app.cache.subjects.warm-up=false")
+class CollectionVersionListenerTest {
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private CollectionVersionRepository collectionVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("several subject writes in one transaction increment the subjects version once")
+    void commit_shouldIncrementOncePerTransaction() {
+        long subjects = version(CollectionVersion.SUBJECTS);
+        long enrollments = version(CollectionVersion.ENROLLMENTS);
+
+        Subject created = transaction.execute(status -> {
+            Subject first = subjectRepository.save(new Subject("Versão A", "CV-A", null));
+            subjectRepository.save(new Subject("Versão B", "CV-B", null));
+            first.setNome("Versão A2");
+            return first;
+        });
+
+        assertThat(version(CollectionVersion.SUBJECTS)).isEqualTo(subjects + 1);
+        assertThat(version(CollectionVersion.ENROLLMENTS)).isEqualTo(enrollments);
+
+        transaction.executeWithoutResult(status -> {
+            subjectRepository.deleteById(created.getId());
+            subjectRepository.delete(subjectRepository.findByCodigo("CV-B").orElseThrow());
+        });
+
+        assertThat(version(CollectionVersion.SUBJECTS)).isEqualTo(subjects + 2);
+    }
+
+    @Test
+    @DisplayName("a rolled back write leaves the version unchanged")
+    void rollback_shouldNotIncrement() {
+        long subjects = version(CollectionVersion.SUBJECTS);
+
+        transaction.executeWithoutResult(status -> {
+            subjectRepository.saveAndFlush(new Subject("Versão R", "CV-R", null));
+            status.setRollbackOnly();
+        });
+
+        assertThat(version(CollectionVersion.SUBJECTS)).isEqualTo(subjects);
+        assertThat(subjectRepository.findByCodigo("CV-R")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("each commit increments a single shard and the version is their sum")
+    void commit_shouldIncrementOneShard() {
+        assertThat(shards(CollectionVersion.SUBJECTS)).hasSize(CollectionVersion.SHARDS);
+
+        for (int i = 0; i < 20; i++) {
+            Map<Integer, Long> before = shards(CollectionVersion.SUBJECTS);
+            long subjects = version(CollectionVersion.SUBJECTS);
+            String codigo = "CV-S" + i;
+            transaction.executeWithoutResult(status -> subjectRepository.save(new Subject("Shard " + codigo, codigo, null)));
+
+            Map<Integer, Long> after = shards(CollectionVersion.SUBJECTS);
+            long changed = after.keySet().stream().filter(shard -> !after.get(shard).equals(before.get(shard))).count();
+            assertThat(changed).isEqualTo(1);
+            assertThat(version(CollectionVersion.SUBJECTS)).isEqualTo(subjects + 1);
+        }
+    }
+
+    private Map<Integer, Long> shards(String collection) {
+        return collectionVersionRepository.findAll().stream()
+                .filter(row -> row.getName().equals(collection))
+                .collect(Collectors.toMap(CollectionVersion::getShard, CollectionVersion::getVersion));
+    }
+
+    private long version(String collection) {
+        return collectionVersionRepository.findVersion(collection).orElseThrow();
+    }
+}
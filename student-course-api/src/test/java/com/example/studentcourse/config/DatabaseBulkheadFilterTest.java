@@ -0,0 +1,99 @@
+package com.example.studentcourse.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Bulkhead with a single permit: exhaustion and acquire timeout give 503, and the permit
+ * comes back after a failing chain and only when an async request completes.
+ */
+class DatabaseBulkheadFilterTest {
+
+    private static final Duration ACQUIRE_TIMEOUT = Duration.ofMillis(50);
+
+    private MeterRegistry meterRegistry;
+    private DatabaseBulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new DatabaseBulkheadFilter(1, ACQUIRE_TIMEOUT, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("permit held by an async request: next request waits acquire-timeout and gets 503")
+    void exhausted_shouldRejectAfterTimeout() throws Exception {
+        MockHttpServletRequest streaming = apiRequest();
+        filter.doFilter(streaming, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertThat(available()).isZero();
+
+        long start = System.nanoTime();
+        MockHttpServletResponse rejected = run(apiRequest(), (req, res) -> {});
+        long waitedNanos = System.nanoTime() - start;
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(waitedNanos).isGreaterThanOrEqualTo(ACQUIRE_TIMEOUT.toNanos());
+        assertThat(meterRegistry.get("app.bulkhead.rejected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("async request: permit is released when the response completes, not when the chain returns")
+    void asyncRequest_shouldReleaseOnComplete() throws Exception {
+        MockHttpServletRequest streaming = apiRequest();
+        filter.doFilter(streaming, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertThat(available()).isZero();
+
+        streaming.getAsyncContext().complete();
+
+        assertThat(available()).isEqualTo(1.0);
+        assertThat(run(apiRequest(), (req, res) -> {}).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("exception in the chain: permit is released")
+    void chainThrows_shouldReleasePermit() throws Exception {
+        assertThatThrownBy(() -> run(apiRequest(), (req, res) -> { throw new ServletException("boom"); }))
+                .isInstanceOf(ServletException.class);
+
+        assertThat(available()).isEqualTo(1.0);
+        assertThat(run(apiRequest(), (req, res) -> {}).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("requests outside /api are not limited")
+    void nonApiRequest_shouldBypass() throws Exception {
+        MockHttpServletRequest streaming = apiRequest();
+        filter.doFilter(streaming, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertThat(run(new MockHttpServletRequest("GET", "/actuator/health"), (req, res) -> {}).getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest apiRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/enrollments/export");
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private double available() {
+        return meterRegistry.get("app.bulkhead.available").gauge().value();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.studentcourse.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * RepoAspect around a repository proxy: one timer per repository, method and outcome,
+ * publishing a percentile histogram and no client-side percentiles.
+ */
+class RepoAspectTest {
+
+    interface SampleRepository extends Repository<Object, Long> {
+        List<Object> findAll();
+
+        void failing();
+    }
+
+    static class SampleRepositoryImpl implements SampleRepository {
+        @Override
+        public List<Object> findAll() {
+            return List.of();
+        }
+
+        @Override
+        public void failing() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    private SimpleMeterRegistry meterRegistry;
+    private SampleRepository repository;
+    // distribution config each timer was registered with (SimpleMeterRegistry keeps no histogram buckets)
+    private final Map<Meter.Id, DistributionStatisticConfig> distributionConfigs = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                distributionConfigs.put(id, config);
+                return config;
+            }
+        });
+        AspectJProxyFactory factory = new AspectJProxyFactory(new SampleRepositoryImpl());
+        factory.addAspect(new RepoAspect(meterRegistry));
+        repository = factory.getProxy();
+    }
+
+    @Test
+    void successfulCall_shouldBeRecordedWithRepositoryMethodAndOutcomeTags() {
+        repository.findAll();
+        repository.findAll();
+
+        Timer timer = meterRegistry.get(RepoAspect.METRIC_NAME)
+                .tag("repository", "SampleRepository")
+                .tag("method", "findAll")
+                .tag("outcome", "SUCCESS")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2);
+
+        DistributionStatisticConfig config = distributionConfigs.get(timer.getId());
+        assertThat(config.isPercentileHistogram()).isTrue();
+        assertThat(config.getPercentiles()).isNull();
+        assertThat(meterRegistry.find(RepoAspect.METRIC_NAME + ".percentile").gauges()).isEmpty();
+    }
+
+    @Test
+    void failingCall_shouldBeRecordedAsError() {
+        assertThatThrownBy(repository::failing).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(RepoAspect.METRIC_NAME)
+                .tag("repository", "SampleRepository")
+                .tag("method", "failing")
+                .tag("outcome", "ERROR")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(RepoAspect.METRIC_NAME).tag("method", "failing").tag("outcome", "SUCCESS").timer())
+                .isNotNull();
+    }
+}
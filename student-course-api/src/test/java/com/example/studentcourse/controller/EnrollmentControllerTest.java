@@ -1,14 +1,19 @@
 package com.example.studentcourse.controller;
 
+import com.example.studentcourse.dto.BatchEnrollmentDTO;
+import com.example.studentcourse.dto.BatchEnrollmentResultDTO;
 import com.example.studentcourse.dto.EnrollmentDTO;
+import com.example.studentcourse.dto.EnrollmentResponseDTO;
+import com.example.studentcourse.dto.EnrollmentSummaryDTO;
 import com.example.studentcourse.dto.GradeDTO;
+import com.example.studentcourse.dto.StudentListItemDTO;
 import com.example.studentcourse.model.Enrollment;
 import com.example.studentcourse.model.Student;
-import com.example.studentcourse.repository.EnrollmentRepository;
 import com.example.studentcourse.service.EnrollmentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -17,13 +22,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -46,9 +56,6 @@ class EnrollmentControllerTest {
     @MockBean
     private EnrollmentService enrollmentService;
 
-    @MockBean
-    private EnrollmentRepository enrollmentRepository;
-
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -83,7 +90,8 @@ class EnrollmentControllerTest {
                         .content(objectMapper.writeValueAsString(dto)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id").value(100))
-                .andExpect(jsonPath("$.student.id").value(1));
+                .andExpect(jsonPath("$.studentId").value(1))
+                .andExpect(jsonPath("$.student").doesNotExist());
 
         verify(enrollmentService).enroll(1L, 2L);
     }
@@ -106,13 +114,34 @@ class EnrollmentControllerTest {
         verify(enrollmentService).enroll(1L, 2L);
     }
 
+    @Test
+    @DisplayName("POST /api/enrollments/batch -> per-item results")
+    void enrollBatch_shouldReturnPerItemResults() throws Exception {
+        BatchEnrollmentDTO dto = new BatchEnrollmentDTO();
+        dto.subjectId = 2L; dto.studentIds = List.of(1L, 9L);
+
+        Mockito.when(enrollmentService.enrollBatch(2L, List.of(1L, 9L))).thenReturn(List.of(
+                new BatchEnrollmentResultDTO(1L, BatchEnrollmentResultDTO.CREATED, 300L, null),
+                new BatchEnrollmentResultDTO(9L, BatchEnrollmentResultDTO.STUDENT_NOT_FOUND, null, "Student not found")));
+
+        mockMvc.perform(post("/api/enrollments/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].enrollmentId").value(300))
+                .andExpect(jsonPath("$[1].status").value("STUDENT_NOT_FOUND"));
+
+        verify(enrollmentService).enrollBatch(2L, List.of(1L, 9L));
+    }
+
     @Test
     @DisplayName("PUT /api/enrollments/{id}/grade -> 200 OK")
     void grade_shouldReturnOk() throws Exception {
         GradeDTO dto = new GradeDTO(); dto.grade = 8.5;
 
         Enrollment updated = makeEnrollment(5L, makeStudent(1L, "Alice"), 8.5);
-        Mockito.when(enrollmentService.setGrade(5L, 8.5)).thenReturn(updated);
+        Mockito.when(enrollmentService.setGrade(5L, 8.5, null)).thenReturn(updated);
 
         mockMvc.perform(put("/api/enrollments/5/grade")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -121,7 +150,7 @@ class EnrollmentControllerTest {
                 .andExpect(jsonPath("$.id").value(5))
                 .andExpect(jsonPath("$.grade").value(8.5));
 
-        verify(enrollmentService).setGrade(5L, 8.5);
+        verify(enrollmentService).setGrade(5L, 8.5, null);
     }
 
     @Test
@@ -130,7 +159,7 @@ class EnrollmentControllerTest {
         GradeDTO dto = new GradeDTO(); dto.grade = 2.0;
 
         // change to IllegalArgumentException so framework maps to client error (consistent with app behavior)
-        Mockito.when(enrollmentService.setGrade(anyLong(), anyDouble()))
+        Mockito.when(enrollmentService.setGrade(anyLong(), anyDouble(), isNull()))
                 .thenThrow(new IllegalArgumentException("not found"));
 
         mockMvc.perform(put("/api/enrollments/999/grade")
@@ -138,29 +167,75 @@ class EnrollmentControllerTest {
                         .content(objectMapper.writeValueAsString(dto)))
                 .andExpect(status().is4xxClientError());
 
-        verify(enrollmentService).setGrade(999L, 2.0);
+        verify(enrollmentService).setGrade(999L, 2.0, null);
     }
 
     @Test
-    @DisplayName("GET /api/enrollments -> returns repository list")
+    @DisplayName("GET /api/enrollments -> returns flat response list")
     void findAll_shouldReturnList() throws Exception {
-        Enrollment e1 = makeEnrollment(1L, makeStudent(1L,"A"), 9.0);
-        Enrollment e2 = makeEnrollment(2L, makeStudent(2L,"B"), 6.0);
+        EnrollmentResponseDTO e1 = new EnrollmentResponseDTO(1L, 1L, 10L, 9.0, 0L);
+        EnrollmentResponseDTO e2 = new EnrollmentResponseDTO(2L, 2L, 10L, 6.0, 0L);
 
-        Mockito.when(enrollmentRepository.findAll()).thenReturn(List.of(e1, e2));
+        Mockito.when(enrollmentService.findAll()).thenReturn(List.of(e1, e2));
 
         mockMvc.perform(get("/api/enrollments"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)));
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].studentId").value(1))
+                .andExpect(jsonPath("$[1].grade").value(6.0));
+
+        verify(enrollmentService).findAll();
+    }
+
+    @Test
+    @DisplayName("GET /api/enrollments/summary -> returns flat projection page")
+    void summary_shouldReturnFlatRows() throws Exception {
+        EnrollmentSummaryDTO row = new EnrollmentSummaryDTO(1L, 3L, "Alice", 4L, "MAT1", "Matemática", 8.0);
+        Mockito.when(enrollmentService.findSummaries(1, 25)).thenReturn(List.of(row));
+
+        mockMvc.perform(get("/api/enrollments/summary").param("page", "1").param("size", "25"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].studentNome").value("Alice"))
+                .andExpect(jsonPath("$[0].subjectCodigo").value("MAT1"))
+                .andExpect(jsonPath("$[0].grade").value(8.0));
 
-        verify(enrollmentRepository).findAll();
+        verify(enrollmentService).findSummaries(1, 25);
     }
 
     @Test
-    @DisplayName("GET /api/enrollments/subject/{id}/approved -> returns students")
-    void approved_shouldReturnStudents() throws Exception {
-        Student s1 = makeStudent(1L, "Alice");
-        Student s2 = makeStudent(2L, "Bob");
+    @DisplayName("GET /api/enrollments/export -> one JSON enrollment per line")
+    @SuppressWarnings("unchecked")
+    void export_shouldStreamNdjson() throws Exception {
+        EnrollmentResponseDTO e1 = new EnrollmentResponseDTO(1L, 3L, 10L, 8.0, 0L);
+        EnrollmentResponseDTO e2 = new EnrollmentResponseDTO(2L, 4L, 10L, null, 0L);
+        Mockito.doAnswer(inv -> {
+            Consumer<EnrollmentResponseDTO> consumer = inv.getArgument(0);
+            consumer.accept(e1);
+            consumer.accept(e2);
+            return null;
+        }).when(enrollmentService).exportAll(ArgumentMatchers.<Consumer<EnrollmentResponseDTO>>any());
+
+        MvcResult result = mockMvc.perform(get("/api/enrollments/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("studentId").asLong()).isEqualTo(3L);
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("GET /api/enrollments/subject/{id}/approved without page/size -> returns all students")
+    void approved_withoutPaging_shouldReturnAllStudents() throws Exception {
+        StudentListItemDTO s1 = new StudentListItemDTO(1L, "Alice", "CPF1", "alice@ex.com", null, null);
+        StudentListItemDTO s2 = new StudentListItemDTO(2L, "Bob", "CPF2", "bob@ex.com", null, null);
         Mockito.when(enrollmentService.getApprovedBySubject(10L)).thenReturn(List.of(s1, s2));
 
         mockMvc.perform(get("/api/enrollments/subject/10/approved"))
@@ -169,19 +244,32 @@ class EnrollmentControllerTest {
                 .andExpect(jsonPath("$[0].nome").value("Alice"));
 
         verify(enrollmentService).getApprovedBySubject(10L);
+        verify(enrollmentService, never()).getApprovedBySubject(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("GET /api/enrollments/subject/{id}/approved?size=20 -> first page with the given size")
+    void approved_withSizeOnly_shouldReturnFirstPage() throws Exception {
+        Mockito.when(enrollmentService.getApprovedBySubject(10L, 0, 20)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/enrollments/subject/10/approved").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(enrollmentService).getApprovedBySubject(10L, 0, 20);
     }
 
     @Test
     @DisplayName("GET /api/enrollments/subject/{id}/failed -> returns students")
     void failed_shouldReturnStudents() throws Exception {
-        Student s1 = makeStudent(3L, "Carol");
-        Mockito.when(enrollmentService.getFailedBySubject(20L)).thenReturn(List.of(s1));
+        StudentListItemDTO s1 = new StudentListItemDTO(3L, "Carol", "CPF3", "carol@ex.com", null, null);
+        Mockito.when(enrollmentService.getFailedBySubject(20L, 2, 10)).thenReturn(List.of(s1));
 
-        mockMvc.perform(get("/api/enrollments/subject/20/failed"))
+        mockMvc.perform(get("/api/enrollments/subject/20/failed").param("page", "2").param("size", "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].nome").value("Carol"));
 
-        verify(enrollmentService).getFailedBySubject(20L);
+        verify(enrollmentService).getFailedBySubject(20L, 2, 10);
     }
 
     @Test
@@ -190,16 +278,16 @@ class EnrollmentControllerTest {
         EnrollmentDTO dto = new EnrollmentDTO(); dto.studentId = 7L; dto.subjectId = 8L;
 
         Enrollment updated = makeEnrollment(55L, makeStudent(7L,"Updated"), null);
-        Mockito.when(enrollmentService.updateEnrollment(55L, 7L, 8L)).thenReturn(updated);
+        Mockito.when(enrollmentService.updateEnrollment(55L, 7L, 8L, null)).thenReturn(updated);
 
         mockMvc.perform(put("/api/enrollments/55")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(55))
-                .andExpect(jsonPath("$.student.id").value(7));
+                .andExpect(jsonPath("$.studentId").value(7));
 
-        verify(enrollmentService).updateEnrollment(55L, 7L, 8L);
+        verify(enrollmentService).updateEnrollment(55L, 7L, 8L, null);
     }
 
     @Test
@@ -207,7 +295,7 @@ class EnrollmentControllerTest {
     void update_whenServiceThrows_shouldReturnClientError() throws Exception {
         EnrollmentDTO dto = new EnrollmentDTO(); dto.studentId = 7L; dto.subjectId = 8L;
 
-        Mockito.when(enrollmentService.updateEnrollment(anyLong(), anyLong(), anyLong()))
+        Mockito.when(enrollmentService.updateEnrollment(anyLong(), anyLong(), anyLong(), isNull()))
                 .thenThrow(new IllegalArgumentException("conflict"));
 
         mockMvc.perform(put("/api/enrollments/55")
@@ -215,7 +303,7 @@ class EnrollmentControllerTest {
                         .content(objectMapper.writeValueAsString(dto)))
                 .andExpect(status().is4xxClientError());
 
-        verify(enrollmentService).updateEnrollment(55L, 7L, 8L);
+        verify(enrollmentService).updateEnrollment(55L, 7L, 8L, null);
     }
 
     @Test
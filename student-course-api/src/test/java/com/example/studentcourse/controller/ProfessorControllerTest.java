@@ -51,14 +51,14 @@ class ProfessorControllerTest {
     }
 
     @Test
-    @DisplayName("POST /api/professors -> 201 Created and returns professor (password overwritten by controller)")
+    @DisplayName("POST /api/professors -> 201 Created and returns professor without password")
     void create_shouldReturnCreated() throws Exception {
         ProfessorDTO dto = new ProfessorDTO();
         dto.username = "prof1";
         dto.password = "plain";
         dto.nome = "Prof One";
 
-        // service will return entity with encoded password; controller resets to plain password before returning
+        // service returns the entity with the encoded password; the response must not expose it
         Professor saved = makeProfessor(10L, "prof1", "encoded-pass", "Prof One");
         Mockito.when(professorService.create(any())).thenReturn(saved);
 
@@ -68,8 +68,7 @@ class ProfessorControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id").value(10))
                 .andExpect(jsonPath("$.username").value("prof1"))
-                // controller sets password back to incoming DTO password before returning
-                .andExpect(jsonPath("$.password").value("plain"))
+                .andExpect(jsonPath("$.password").doesNotExist())
                 .andExpect(jsonPath("$.nome").value("Prof One"));
 
         // verify service called with professor having same username (password encoding handled in service)
@@ -111,8 +110,7 @@ class ProfessorControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(5))
                 .andExpect(jsonPath("$.username").value("newuser"))
-                // controller replaces password with plain from DTO
-                .andExpect(jsonPath("$.password").value("newpwd"))
+                .andExpect(jsonPath("$.password").doesNotExist())
                 .andExpect(jsonPath("$.nome").value("New Name"));
 
         verify(professorService).update(eq(5L), Mockito.argThat(p -> "newuser".equals(p.getUsername())));
@@ -1,9 +1,12 @@
 package com.example.studentcourse.controller;
 
+import com.example.studentcourse.dto.KeysetPage;
 import com.example.studentcourse.dto.StudentDTO;
+import com.example.studentcourse.dto.StudentListItemDTO;
 import com.example.studentcourse.model.Student;
 import com.example.studentcourse.service.StudentService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -11,12 +14,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.util.NestedServletException;
 
+import java.sql.SQLException;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -81,6 +87,25 @@ class StudentControllerTest {
         verify(studentService).create(any());
     }
 
+    @Test
+    @DisplayName("POST /api/students -> CPF duplicado barrado pela constraint vira 400 com a mensagem de negócio")
+    void create_whenCpfConstraintViolated_shouldReturnBadRequest() throws Exception {
+        StudentDTO dto = new StudentDTO();
+        dto.nome = "João";
+        dto.cpf = "11122233344";
+        dto.email = "joao@example.com";
+
+        when(studentService.create(any())).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key"),
+                        "PUBLIC.UK_STUDENTS_CPF_INDEX_8 ON PUBLIC.STUDENTS(CPF NULLS FIRST)")));
+
+        mockMvc.perform(post("/api/students")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("CPF already registered ( CPF já cadastrado )"));
+    }
+
     @Test
     @DisplayName("POST /api/students -> validação: se 400 então service NÃO chamado; senão service chamado")
     void create_whenValidationFails_shouldReturnBadRequestOrCallServiceIfValidationDisabled() throws Exception {
@@ -115,18 +140,39 @@ class StudentControllerTest {
     @Test
     @DisplayName("GET /api/students -> retorna lista")
     void findAll_shouldReturnList() throws Exception {
-        Student s1 = makeStudent(1L, "A", "CPF1", "a@ex.com");
-        Student s2 = makeStudent(2L, "B", "CPF2", "b@ex.com");
+        StudentListItemDTO s1 = new StudentListItemDTO(1L, "A", "CPF1", "a@ex.com", "9999", "Rua A");
+        StudentListItemDTO s2 = new StudentListItemDTO(2L, "B", "CPF2", "b@ex.com", null, null);
         when(studentService.findAll()).thenReturn(List.of(s1, s2));
 
         mockMvc.perform(get("/api/students"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].id").value(1));
+                .andExpect(jsonPath("$[0].id").value(1))
+                // the UI edits straight from the row, so phone/address stay in the list view
+                .andExpect(jsonPath("$[0].telefone").value("9999"))
+                .andExpect(jsonPath("$[0].endereco").value("Rua A"))
+                .andExpect(jsonPath("$[0].version").doesNotExist());
 
         verify(studentService).findAll();
     }
 
+    @Test
+    @DisplayName("GET /api/students?after=&limit= -> retorna página por cursor")
+    void findPage_shouldReturnKeysetPage() throws Exception {
+        StudentListItemDTO s3 = new StudentListItemDTO(3L, "C", "CPF3", "c@ex.com", null, null);
+        StudentListItemDTO s4 = new StudentListItemDTO(4L, "D", "CPF4", "d@ex.com", null, null);
+        when(studentService.findPage(2L, 2)).thenReturn(new KeysetPage<>(List.of(s3, s4), 4L));
+
+        mockMvc.perform(get("/api/students").param("after", "2").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(3))
+                .andExpect(jsonPath("$.nextCursor").value(4));
+
+        verify(studentService).findPage(2L, 2);
+        verify(studentService, never()).findAll();
+    }
+
     @Test
     @DisplayName("GET /api/students/{id} -> retorna student")
     void findById_shouldReturnOk() throws Exception {
@@ -141,6 +187,32 @@ class StudentControllerTest {
         verify(studentService).findById(5L);
     }
 
+    @Test
+    @DisplayName("GET /api/students/{id} -> devolve ETag com a versão")
+    void findById_shouldReturnETag() throws Exception {
+        Student s = makeStudent(5L, "Zé", "CPF5", "ze@ex.com");
+        s.setVersion(3L);
+        when(studentService.findVersion(5L)).thenReturn(Optional.of(3L));
+        when(studentService.findById(5L)).thenReturn(s);
+
+        mockMvc.perform(get("/api/students/5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"student-5-3\""))
+                .andExpect(jsonPath("$.version").value(3));
+    }
+
+    @Test
+    @DisplayName("GET /api/students/{id} com If-None-Match atual -> 304 sem carregar o aluno")
+    void findById_withMatchingETag_shouldReturnNotModified() throws Exception {
+        when(studentService.findVersion(5L)).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/api/students/5").header("If-None-Match", "\"student-5-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(studentService, never()).findById(anyLong());
+    }
+
     @Test
     @DisplayName("GET /api/students/{id} -> não encontrado -> 4xx ou exception (robusto)")
     void findById_whenNotFound_shouldReturnClientErrorOrThrow() throws Exception {
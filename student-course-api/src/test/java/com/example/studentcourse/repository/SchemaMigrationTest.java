@@ -0,0 +1,92 @@
+package com.example.studentcourse.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Schema created by the Flyway migrations (Hibernate only validates it) and the
+ * H2 plans of the enrollment lookups that depend on its indexes.
+ */
+@DataJpaTest
+class SchemaMigrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("migrations are applied and the JPA mapping validates against them")
+    void migrationsApplied() {
+        Integer applied = jdbcTemplate.queryForObject(
+                "select count(*) from \"flyway_schema_history\" where \"success\" = true", Integer.class);
+        assertThat(applied).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("enrollments by subject use the (subject_id, grade) index")
+    void findBySubjectId_usesIndex() {
+        String plan = explain("select e.id, e.grade from enrollments e where e.subject_id = 1 and e.grade >= 7");
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    @DisplayName("enrollments by student use the unique (student_id, subject_id) index")
+    void findByStudentId_usesIndex() {
+        String plan = explain("select e.id from enrollments e where e.student_id = 1");
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    @DisplayName("a legacy ddl-auto=update schema is baselined at V0 and upgraded in place by V1")
+    void legacySchema_isUpgradedInPlace() {
+        DriverManagerDataSource legacy = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy_upgrade;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE", "sa", "");
+        JdbcTemplate legacyJdbc = new JdbcTemplate(legacy);
+        // shape of the schema Hibernate generated before the migrations existed
+        legacyJdbc.execute("create table professor (id bigint generated by default as identity primary key, " +
+                "nome varchar(255), password varchar(255), username varchar(255) not null, constraint UKLEGACYPROF unique (username))");
+        legacyJdbc.execute("create table students (id bigint generated by default as identity primary key, cpf varchar(255), " +
+                "email varchar(255), endereco varchar(255), nome varchar(255), telefone varchar(255), constraint UKLEGACYCPF unique (cpf))");
+        legacyJdbc.execute("create table subjects (id bigint generated by default as identity primary key, codigo varchar(255), " +
+                "nome varchar(255), constraint UKLEGACYCODIGO unique (codigo))");
+        legacyJdbc.execute("create table enrollments (id bigint generated by default as identity primary key, grade float(53), " +
+                "student_id bigint not null, subject_id bigint not null, constraint UKLEGACYENROLL unique (student_id, subject_id), " +
+                "constraint FKLEGACYSTUDENT foreign key (student_id) references students, " +
+                "constraint FKLEGACYSUBJECT foreign key (subject_id) references subjects)");
+        legacyJdbc.update("insert into students (nome, cpf) values ('Ana', '111')");
+        legacyJdbc.update("insert into subjects (nome, codigo) values ('Matemática', 'MAT')");
+        legacyJdbc.update("insert into enrollments (student_id, subject_id, grade) values (1, 1, 8.0)");
+
+        Flyway.configure()
+                .dataSource(legacy)
+                .locations("classpath:db/migration/common")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        assertThat(legacyJdbc.queryForObject("select version from students where cpf = '111'", Long.class)).isZero();
+        assertThat(legacyJdbc.queryForObject("select count(*) from information_schema.columns " +
+                "where table_name = 'SUBJECTS' and column_name in ('PASSING_GRADE', 'NOME_SEARCH', 'CODIGO_SEARCH', 'VERSION')",
+                Integer.class)).isEqualTo(4);
+        assertThat(legacyJdbc.queryForObject("select count(*) from information_schema.sequences " +
+                "where sequence_name = 'ENROLLMENTS_SEQ'", Integer.class)).isEqualTo(1);
+        assertThat(legacyJdbc.queryForObject("select enrolled from subject_grade_summary where subject_id = 1", Long.class))
+                .isEqualTo(1L);
+        // search columns backfilled once by the V8 Java migration
+        assertThat(legacyJdbc.queryForObject("select nome_search || '/' || cpf_search from students where cpf = '111'", String.class))
+                .isEqualTo("ana/111");
+        assertThat(legacyJdbc.queryForObject("select nome_search from subjects where codigo = 'MAT'", String.class))
+                .isEqualTo("matematica");
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.studentcourse.repository;
+
+import com.example.studentcourse.dto.StudentListItemDTO;
+import com.example.studentcourse.dto.SubjectResponseDTO;
+import com.example.studentcourse.model.SearchNormalizer;
+import com.example.studentcourse.model.Student;
+import com.example.studentcourse.model.Subject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prefix search on the normalized *_search columns: accent/case insensitivity, LIKE
+ * wildcards taken literally, CPF with or without punctuation, and the tier ranking
+ * (exact first, then name > CPF > e-mail for students, code > name for subjects).
+ */
+@DataJpaTest
+class SearchRepositoryTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @BeforeEach
+    void setUp() {
+        studentRepository.save(new Student("José Álvares", "123.456.789-00", "alvares@ex.com", null, null));
+        studentRepository.save(new Student("Jose", "111.111.111-11", "jose.exato@ex.com", null, null));
+        studentRepository.save(new Student("Josefa Lima", "98765432100", "lima@ex.com", null, null));
+        studentRepository.save(new Student("Carlos Souza", "22233344455", "jose.souza@ex.com", null, null));
+        studentRepository.save(new Student("100% Presença", "55566677788", "presenca@ex.com", null, null));
+        studentRepository.save(new Student("1000 Dias", "12399988877", "dias@ex.com", null, null));
+        studentRepository.save(new Student("Ana_Maria", "33344455566", "anamaria@ex.com", null, null));
+        studentRepository.save(new Student("AnaXMaria", "44455566677", "anax@ex.com", null, null));
+
+        subjectRepository.save(new Subject("Cálculo I", "MAT101", null));
+        subjectRepository.save(new Subject("Matemática Discreta", "INF200", null));
+        subjectRepository.save(new Subject("Mat", "EST300", null));
+    }
+
+    @Test
+    @DisplayName("accents and case are ignored on both sides")
+    void search_shouldIgnoreAccentsAndCase() {
+        assertThat(names(searchStudents("JOSÉ ÁLV", 0, 10))).containsExactly("José Álvares");
+        assertThat(names(searchStudents("josefa", 0, 10))).containsExactly("Josefa Lima");
+    }
+
+    @Test
+    @DisplayName("% and _ in the term are matched literally")
+    void search_shouldEscapeLikeWildcards() {
+        assertThat(names(searchStudents("100%", 0, 10))).containsExactly("100% Presença");
+        assertThat(names(searchStudents("ana_", 0, 10))).containsExactly("Ana_Maria");
+    }
+
+    @Test
+    @DisplayName("CPF matches with or without punctuation, whatever the stored format")
+    void search_shouldMatchNormalizedCpf() {
+        assertThat(names(searchStudents("123.456", 0, 10))).containsExactly("José Álvares");
+        assertThat(names(searchStudents("1234567", 0, 10))).containsExactly("José Álvares");
+        assertThat(names(searchStudents("987.654.321-00", 0, 10))).containsExactly("Josefa Lima");
+    }
+
+    @Test
+    @DisplayName("students: exact name first, then name prefix, then e-mail; pages continue across tiers")
+    void search_shouldRankTiers() {
+        assertThat(names(searchStudents("jose", 0, 10)))
+                .containsExactly("Jose", "José Álvares", "Josefa Lima", "Carlos Souza");
+
+        assertThat(names(searchStudents("jose", 1, 2))).containsExactly("Josefa Lima", "Carlos Souza");
+        assertThat(names(searchStudents("jose", 2, 2))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("students matching several tiers appear once, in their best tier")
+    void search_shouldNotRepeatRows() {
+        // "Jose" matches by name and by e-mail (jose.exato@...)
+        assertThat(names(searchStudents("jose", 0, 10))).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("subjects: code prefix before name prefix")
+    void searchSubjects_shouldRankCodeBeforeName() {
+        List<SubjectResponseDTO> found = subjectRepository.search(SearchNormalizer.requireTerm("mat"), 0, 10);
+
+        assertThat(found).extracting(subject -> subject.codigo).containsExactly("MAT101", "EST300", "INF200");
+    }
+
+    private List<StudentListItemDTO> searchStudents(String query, int page, int size) {
+        return studentRepository.search(SearchNormalizer.requireTerm(query), page, size);
+    }
+
+    private static List<String> names(List<StudentListItemDTO> students) {
+        return students.stream().map(student -> student.nome).toList();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.studentcourse.repository;
+
+import com.example.studentcourse.model.Student;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Second-level, natural-id and query caches. Each repository call runs in its own
+ * transaction (no test-managed rollback), since the caches are only populated on commit.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        student = studentRepository.save(new Student("Cache Test", "CACHE-1", "cache@ex.com", null, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteById(student.getId());
+    }
+
+    @Test
+    @DisplayName("findByCpf: repeated lookup is served by the natural-id and entity caches without SQL")
+    void findByCpf_repeatedLookup_shouldNotHitTheDatabase() {
+        studentRepository.findByCpf("CACHE-1");
+        statistics.clear();
+
+        Optional<Student> found = studentRepository.findByCpf("CACHE-1");
+
+        assertThat(found).get().extracting(Student::getId).isEqualTo(student.getId());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("findByCpf: a changed CPF is resolved to the new value only")
+    void findByCpf_afterCpfChange_shouldResolveNewValueOnly() {
+        studentRepository.findByCpf("CACHE-1");
+        Student loaded = studentRepository.findById(student.getId()).orElseThrow();
+        loaded.setCpf("CACHE-2");
+        studentRepository.save(loaded);
+
+        assertThat(studentRepository.findByCpf("CACHE-1")).isEmpty();
+        assertThat(studentRepository.findByCpf("CACHE-2")).get().extracting(Student::getId).isEqualTo(student.getId());
+    }
+
+    @Test
+    @DisplayName("findVersionById: served by the query cache until the students table is written")
+    void findVersionById_shouldUseQueryCacheUntilUpdate() {
+        Long version = studentRepository.findVersionById(student.getId()).orElseThrow();
+        statistics.clear();
+
+        assertThat(studentRepository.findVersionById(student.getId())).contains(version);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isPositive();
+
+        Student loaded = studentRepository.findById(student.getId()).orElseThrow();
+        loaded.setNome("Cache Test Updated");
+        studentRepository.save(loaded);
+
+        assertThat(studentRepository.findVersionById(student.getId())).contains(version + 1);
+    }
+}
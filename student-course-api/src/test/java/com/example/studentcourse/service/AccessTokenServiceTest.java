@@ -0,0 +1,59 @@
+package com.example.studentcourse.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the HMAC access tokens.
+ */
+class AccessTokenServiceTest {
+
+    private static final String SECRET = "test-secret-with-at-least-32-bytes!!";
+    private static final Instant NOW = Instant.parse("2025-01-10T10:00:00Z");
+
+    private final AccessTokenService tokens =
+            new AccessTokenService(SECRET, Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void issue_thenVerify_shouldReturnUsername() {
+        AccessTokenService.IssuedToken token = tokens.issue("prof.one");
+
+        assertThat(token.expiresInSeconds()).isEqualTo(900);
+        assertThat(tokens.verify(token.value())).contains("prof.one");
+    }
+
+    @Test
+    void verify_tamperedToken_shouldBeRejected() {
+        String token = tokens.issue("prof").value();
+        String otherUser = tokens.issue("admin").value();
+        String forged = otherUser.substring(0, otherUser.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+
+        assertThat(tokens.verify(forged)).isEmpty();
+        assertThat(tokens.verify("garbage")).isEmpty();
+        assertThat(tokens.verify("a.b.c")).isEmpty();
+        assertThat(tokens.verify(null)).isEmpty();
+    }
+
+    @Test
+    void verify_expiredToken_shouldBeRejected() {
+        String token = tokens.issue("prof").value();
+        AccessTokenService later = new AccessTokenService(SECRET, Duration.ofMinutes(15),
+                Clock.fixed(NOW.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+
+        assertThat(later.verify(token)).isEmpty();
+    }
+
+    @Test
+    void verify_tokenSignedWithOtherSecret_shouldBeRejected() {
+        AccessTokenService other = new AccessTokenService("another-secret-with-32-bytes-or-more",
+                Duration.ofMinutes(15), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThat(tokens.verify(other.issue("prof").value())).isEmpty();
+    }
+}
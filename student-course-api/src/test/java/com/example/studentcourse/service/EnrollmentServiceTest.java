@@ -1,5 +1,9 @@
 package com.example.studentcourse.service;
 
+import com.example.studentcourse.dto.BatchEnrollmentResultDTO;
+import com.example.studentcourse.dto.EnrollmentResponseDTO;
+import com.example.studentcourse.dto.StudentListItemDTO;
+import com.example.studentcourse.exception.ConflictException;
 import com.example.studentcourse.model.Enrollment;
 import com.example.studentcourse.model.Student;
 import com.example.studentcourse.model.Subject;
@@ -10,11 +14,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -32,6 +45,13 @@ class EnrollmentServiceTest {
     @Mock
     private SubjectService subjectService;
 
+    @Mock
+    private SubjectGradeSummaryService gradeSummaryService;
+
+    // mocked transaction manager: the retry runs the block directly, with no pause between attempts
+    @Spy
+    private OptimisticRetry optimisticRetry = new OptimisticRetry(mock(PlatformTransactionManager.class), 3, Duration.ZERO);
+
     @InjectMocks
     private EnrollmentService enrollmentService;
 
@@ -46,33 +66,66 @@ class EnrollmentServiceTest {
 
     @Test
     void enroll_success_shouldSaveAndReturn() {
-        when(studentService.findById(1L)).thenReturn(studentA);
+        when(studentService.getReference(1L)).thenReturn(studentA);
         when(subjectService.findById(2L)).thenReturn(subjectX);
-        when(enrollmentRepository.findByStudentIdAndSubjectId(1L, 2L)).thenReturn(Optional.empty());
 
         Enrollment toSave = new Enrollment(); toSave.setId(10L); toSave.setStudent(studentA); toSave.setSubject(subjectX);
-        when(enrollmentRepository.save(any(Enrollment.class))).thenReturn(toSave);
+        when(enrollmentRepository.saveAndFlush(any(Enrollment.class))).thenReturn(toSave);
 
         Enrollment result = enrollmentService.enroll(1L, 2L);
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(10L);
-        verify(enrollmentRepository).save(any(Enrollment.class));
+        verify(enrollmentRepository).saveAndFlush(any(Enrollment.class));
+        verify(gradeSummaryService).enrolled(subjectX, 1);
+        // no pre-check selects: the student is a reference and duplicates are left to the unique constraint
+        verify(studentService, never()).findById(anyLong());
+        verify(enrollmentRepository, never()).findByStudentIdAndSubjectId(anyLong(), anyLong());
     }
 
     @Test
-    void enroll_whenAlreadyEnrolled_shouldThrow() {
-        when(studentService.findById(1L)).thenReturn(studentA);
+    void enroll_whenAlreadyEnrolled_shouldPropagateConstraintViolation() {
+        when(studentService.getReference(1L)).thenReturn(studentA);
         when(subjectService.findById(2L)).thenReturn(subjectX);
-
-        Enrollment existing = new Enrollment(); existing.setId(99L);
-        when(enrollmentRepository.findByStudentIdAndSubjectId(1L, 2L)).thenReturn(Optional.of(existing));
+        when(enrollmentRepository.saveAndFlush(any(Enrollment.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_enrollments_student_subject"));
 
         assertThatThrownBy(() -> enrollmentService.enroll(1L, 2L))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("Aluno já cadastrado");
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
 
-        verify(enrollmentRepository, never()).save(any());
+    @Test
+    void enrollBatch_shouldInsertOnlyValidStudentsAndReportEachItem() {
+        Student ref3 = new Student(); ref3.setId(3L);
+        when(subjectService.findById(2L)).thenReturn(subjectX);
+        when(studentService.findExistingIds(List.of(1L, 3L, 4L))).thenReturn(List.of(1L, 3L));
+        when(enrollmentRepository.findEnrolledStudentIds(2L, List.of(1L, 3L, 4L))).thenReturn(List.of(1L));
+        when(studentService.getReference(3L)).thenReturn(ref3);
+        when(enrollmentRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Enrollment> toSave = inv.getArgument(0);
+            toSave.get(0).setId(500L);
+            return toSave;
+        });
+
+        List<BatchEnrollmentResultDTO> results = enrollmentService.enrollBatch(2L, List.of(1L, 3L, 4L, 3L));
+
+        assertThat(results).extracting(r -> r.status).containsExactly(
+                BatchEnrollmentResultDTO.ALREADY_ENROLLED,
+                BatchEnrollmentResultDTO.CREATED,
+                BatchEnrollmentResultDTO.STUDENT_NOT_FOUND,
+                BatchEnrollmentResultDTO.DUPLICATE);
+        assertThat(results.get(1).enrollmentId).isEqualTo(500L);
+        verify(enrollmentRepository).saveAll(argThat(list -> ((List<Enrollment>) list).size() == 1));
+        verify(enrollmentRepository).flush();
+        verify(studentService, never()).findById(anyLong());
+    }
+
+    @Test
+    void enrollBatch_empty_shouldThrow() {
+        assertThatThrownBy(() -> enrollmentService.enrollBatch(2L, List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Nenhum aluno informado");
+        verifyNoInteractions(enrollmentRepository);
     }
 
     @Test
@@ -80,11 +133,56 @@ class EnrollmentServiceTest {
         Enrollment e = new Enrollment(); e.setId(5L); e.setStudent(studentA); e.setSubject(subjectX); e.setGrade(null);
 
         when(enrollmentRepository.findById(5L)).thenReturn(Optional.of(e));
-        when(enrollmentRepository.save(any(Enrollment.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(enrollmentRepository.saveAndFlush(any(Enrollment.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Enrollment updated = enrollmentService.setGrade(5L, 7.5);
         assertThat(updated.getGrade()).isEqualTo(7.5);
-        verify(enrollmentRepository).save(e);
+        // the delta goes after the flush, so a missing summary row is recounted with this grade
+        var order = inOrder(enrollmentRepository, gradeSummaryService);
+        order.verify(enrollmentRepository).saveAndFlush(e);
+        order.verify(gradeSummaryService).gradeChanged(subjectX, null, 7.5);
+    }
+
+    @Test
+    void setGrade_staleExpectedVersion_shouldThrowConflictWithCurrentState() {
+        Enrollment e = new Enrollment(5L, studentA, subjectX, 6.0); e.setVersion(4L);
+        when(enrollmentRepository.findById(5L)).thenReturn(Optional.of(e));
+
+        assertThatThrownBy(() -> enrollmentService.setGrade(5L, 7.5, 3L))
+                .isInstanceOf(ConflictException.class)
+                .satisfies(ex -> assertThat(((ConflictException) ex).getCurrent()).isSameAs(e));
+        verify(enrollmentRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(gradeSummaryService);
+        assertThat(e.getGrade()).isEqualTo(6.0);
+    }
+
+    @Test
+    void setGrade_concurrentCommit_shouldRetryAndSucceed() {
+        Enrollment e = new Enrollment(5L, studentA, subjectX, null); e.setVersion(1L);
+        when(enrollmentRepository.findById(5L)).thenReturn(Optional.of(e));
+        when(enrollmentRepository.saveAndFlush(any(Enrollment.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Enrollment.class, 5L))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        Enrollment updated = enrollmentService.setGrade(5L, 9.0);
+
+        assertThat(updated.getGrade()).isEqualTo(9.0);
+        verify(enrollmentRepository, times(2)).findById(5L);
+    }
+
+    @Test
+    void setGrade_conflictOnEveryAttempt_shouldThrowConflict() {
+        Enrollment e = new Enrollment(5L, studentA, subjectX, null); e.setVersion(1L);
+        when(enrollmentRepository.findById(5L)).thenReturn(Optional.of(e));
+        when(enrollmentRepository.saveAndFlush(any(Enrollment.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Enrollment.class, 5L));
+
+        assertThatThrownBy(() -> enrollmentService.setGrade(5L, 9.0))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("alterado por outro usuário");
+        // 3 attempts + reading the current state for the 409 response
+        verify(enrollmentRepository, times(3)).saveAndFlush(any(Enrollment.class));
+        verify(enrollmentRepository, times(4)).findById(5L);
     }
 
     @Test
@@ -96,32 +194,39 @@ class EnrollmentServiceTest {
     }
 
     @Test
-    void getApprovedBySubject_filtersAndMapsCorrectly() {
-        Student a = studentA;
-        Student b = new Student(); b.setId(2L); b.setNome("Bob");
-
-        Enrollment e1 = new Enrollment(); e1.setId(1L); e1.setStudent(a); e1.setSubject(subjectX); e1.setGrade(9.0);
-        Enrollment e2 = new Enrollment(); e2.setId(2L); e2.setStudent(b); e2.setSubject(subjectX); e2.setGrade(5.0);
-        Enrollment e3 = new Enrollment(); e3.setId(3L); e3.setStudent(b); e3.setSubject(subjectX); e3.setGrade(null);
+    void getApprovedBySubject_delegatesToDatabaseQuery() {
+        StudentListItemDTO a = new StudentListItemDTO(1L, "Alice", "CPF1", null, null, null);
+        when(enrollmentRepository.findApprovedStudents(eq(2L), eq(Subject.DEFAULT_PASSING_GRADE), any(Pageable.class)))
+                .thenReturn(List.of(a));
 
-        when(enrollmentRepository.findBySubjectId(2L)).thenReturn(List.of(e1, e2, e3));
+        List<StudentListItemDTO> approved = enrollmentService.getApprovedBySubject(2L, 0, 20);
 
-        List<Student> approved = enrollmentService.getApprovedBySubject(2L);
         assertThat(approved).hasSize(1).containsExactly(a);
+        verify(enrollmentRepository).findApprovedStudents(2L, Subject.DEFAULT_PASSING_GRADE, PageRequest.of(0, 20));
+        verify(enrollmentRepository, never()).findBySubjectId(anyLong());
     }
 
     @Test
-    void getFailedBySubject_filtersAndMapsCorrectly() {
-        Student a = studentA;
-        Student b = new Student(); b.setId(2L); b.setNome("Bob");
+    void getApprovedAndFailedBySubject_withoutPage_shouldQueryUnpaged() {
+        StudentListItemDTO a = new StudentListItemDTO(1L, "Alice", "CPF1", null, null, null);
+        when(enrollmentRepository.findApprovedStudents(2L, Subject.DEFAULT_PASSING_GRADE, Pageable.unpaged())).thenReturn(List.of(a));
+        when(enrollmentRepository.findFailedStudents(2L, Subject.DEFAULT_PASSING_GRADE, Pageable.unpaged())).thenReturn(List.of());
+
+        assertThat(enrollmentService.getApprovedBySubject(2L)).containsExactly(a);
+        assertThat(enrollmentService.getFailedBySubject(2L)).isEmpty();
+    }
 
-        Enrollment e1 = new Enrollment(); e1.setId(1L); e1.setStudent(a); e1.setSubject(subjectX); e1.setGrade(6.0);
-        Enrollment e2 = new Enrollment(); e2.setId(2L); e2.setStudent(b); e2.setSubject(subjectX); e2.setGrade(8.0);
+    @Test
+    void getFailedBySubject_delegatesToDatabaseQueryAndClampsPageSize() {
+        StudentListItemDTO a = new StudentListItemDTO(1L, "Alice", "CPF1", null, null, null);
+        when(enrollmentRepository.findFailedStudents(eq(2L), eq(Subject.DEFAULT_PASSING_GRADE), any(Pageable.class)))
+                .thenReturn(List.of(a));
 
-        when(enrollmentRepository.findBySubjectId(2L)).thenReturn(List.of(e1, e2));
+        List<StudentListItemDTO> failed = enrollmentService.getFailedBySubject(2L, 1, 10_000);
 
-        List<Student> failed = enrollmentService.getFailedBySubject(2L);
         assertThat(failed).hasSize(1).containsExactly(a);
+        verify(enrollmentRepository).findFailedStudents(2L, Subject.DEFAULT_PASSING_GRADE,
+                PageRequest.of(1, EnrollmentService.MAX_PAGE_SIZE));
     }
 
     @Test
@@ -135,12 +240,15 @@ class EnrollmentServiceTest {
         when(studentService.findById(7L)).thenReturn(newStudent);
         when(subjectService.findById(8L)).thenReturn(newSubject);
         when(enrollmentRepository.findByStudentIdAndSubjectId(7L, 8L)).thenReturn(Optional.empty());
-        when(enrollmentRepository.save(any(Enrollment.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(enrollmentRepository.saveAndFlush(any(Enrollment.class))).thenAnswer(inv -> inv.getArgument(0));
 
         Enrollment updated = enrollmentService.updateEnrollment(50L, 7L, 8L);
         assertThat(updated.getStudent()).isEqualTo(newStudent);
         assertThat(updated.getSubject()).isEqualTo(newSubject);
-        verify(enrollmentRepository).save(existing);
+        verify(enrollmentRepository).saveAndFlush(existing);
+        // moved to another subject: counters leave subjectX and join newSubject
+        verify(gradeSummaryService).unenrolled(subjectX, null);
+        verify(gradeSummaryService).enrolled(newSubject, 1);
     }
 
     @Test
@@ -168,31 +276,35 @@ class EnrollmentServiceTest {
 
     @Test
     void updateEnrollment_conflictSameEnrollment_shouldAllow() {
-        Enrollment existing = new Enrollment(); existing.setId(70L);
-        when(enrollmentRepository.findById(70L)).thenReturn(Optional.of(existing));
-
         Student s = new Student(); s.setId(5L);
         Subject subj = new Subject(); subj.setId(6L);
 
+        Enrollment existing = new Enrollment(); existing.setId(70L); existing.setSubject(subj);
+        when(enrollmentRepository.findById(70L)).thenReturn(Optional.of(existing));
+
         when(studentService.findById(5L)).thenReturn(s);
         when(subjectService.findById(6L)).thenReturn(subj);
         when(enrollmentRepository.findByStudentIdAndSubjectId(5L, 6L)).thenReturn(Optional.of(existing));
-        when(enrollmentRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(enrollmentRepository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
 
         Enrollment updated = enrollmentService.updateEnrollment(70L, 5L, 6L);
         assertThat(updated).isNotNull();
-        verify(enrollmentRepository).save(existing);
+        verify(enrollmentRepository).saveAndFlush(existing);
+        verifyNoInteractions(gradeSummaryService);
     }
 
     @Test
     void deleteEnrollment_success_shouldDelete() {
-        Enrollment e = new Enrollment(); e.setId(200L);
+        Enrollment e = new Enrollment(200L, studentA, subjectX, 8.0);
         when(enrollmentRepository.findById(200L)).thenReturn(Optional.of(e));
         doNothing().when(enrollmentRepository).delete(e);
 
         enrollmentService.deleteEnrollment(200L);
 
-        verify(enrollmentRepository).delete(e);
+        var order = inOrder(enrollmentRepository, gradeSummaryService);
+        order.verify(enrollmentRepository).delete(e);
+        order.verify(enrollmentRepository).flush();
+        order.verify(gradeSummaryService).unenrolled(subjectX, 8.0);
     }
 
     @Test
@@ -202,4 +314,17 @@ class EnrollmentServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Matrícula não encontrada");
     }
+
+    @Test
+    void exportAll_shouldPassEveryStreamedRowToTheConsumer() {
+        int total = 2_005;
+        when(enrollmentRepository.streamAllForExport()).thenReturn(
+                IntStream.range(0, total).mapToObj(i -> new EnrollmentResponseDTO((long) i, 1L, 2L, null, 0L)));
+        List<EnrollmentResponseDTO> exported = new ArrayList<>();
+
+        enrollmentService.exportAll(exported::add);
+
+        assertThat(exported).hasSize(total);
+        assertThat(exported.get(total - 1).id).isEqualTo(total - 1L);
+    }
 }
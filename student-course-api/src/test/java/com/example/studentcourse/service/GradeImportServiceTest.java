@@ -0,0 +1,173 @@
+package com.example.studentcourse.service;
+
+import com.example.studentcourse.dto.GradeImportResultDTO;
+import com.example.studentcourse.model.Enrollment;
+import com.example.studentcourse.model.Student;
+import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.repository.EnrollmentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CSV grade import.
+ */
+@ExtendWith(MockitoExtension.class)
+class GradeImportServiceTest {
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private SubjectService subjectService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private SubjectGradeSummaryService gradeSummaryService;
+
+    private GradeImportService gradeImportService;
+    private Subject subject;
+
+    @BeforeEach
+    void setUp() {
+        gradeImportService = new GradeImportService(enrollmentRepository, subjectService, entityManager,
+                new OptimisticRetry(transactionManager, 3, Duration.ZERO), gradeSummaryService);
+        subject = new Subject(3L, "Matemática", "MAT");
+        when(subjectService.findById(3L)).thenReturn(subject);
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Enrollment enrollment(Long id, String cpf) {
+        Student student = new Student(); student.setId(id); student.setCpf(cpf);
+        return new Enrollment(id, student, subject, null);
+    }
+
+    @Test
+    void importGrades_byCpf_shouldUpdateFoundRowsAndRejectTheRest() throws Exception {
+        Enrollment alice = enrollment(10L, "111");
+        when(enrollmentRepository.findForGradeImportByCpf(3L, List.of("111", "222"))).thenReturn(List.of(alice));
+
+        GradeImportResultDTO result = gradeImportService.importGrades(3L, csv("cpf,grade\n111,8.5\n222,7\n333,abc\n444,11\n\n"));
+
+        assertThat(alice.getGrade()).isEqualTo(8.5);
+        assertThat(result.rows).isEqualTo(4);
+        assertThat(result.updated).isEqualTo(1);
+        assertThat(result.rejected).isEqualTo(3);
+        assertThat(result.rejections).extracting(r -> r.line).containsExactlyInAnyOrder(3, 4, 5);
+        verify(gradeSummaryService).gradesChanged(subject, List.of(new SubjectGradeSummaryService.GradeChange(null, 8.5)));
+        verify(transactionManager).commit(any());
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void importGrades_byCpf_shouldMatchFormattedAndUnformattedCpfByDigits() throws Exception {
+        Enrollment alice = enrollment(10L, "111.222.333-44");
+        Enrollment bob = enrollment(11L, "55566677788");
+        when(enrollmentRepository.findForGradeImportByCpf(3L, List.of("11122233344", "55566677788"))).thenReturn(List.of(alice, bob));
+
+        GradeImportResultDTO result = gradeImportService.importGrades(3L, csv("cpf,grade\n11122233344,9\n555.666.777-88,4\n---,5\n"));
+
+        assertThat(alice.getGrade()).isEqualTo(9.0);
+        assertThat(bob.getGrade()).isEqualTo(4.0);
+        assertThat(result.updated).isEqualTo(2);
+        assertThat(result.rejected).isEqualTo(1);
+        assertThat(result.rejections.get(0).reason).contains("CPF inválido");
+    }
+
+    @Test
+    void importGrades_concurrentEdit_shouldRetryTheChunk() throws Exception {
+        Enrollment e = enrollment(42L, "999");
+        when(enrollmentRepository.findForGradeImportByIds(3L, List.of(42L))).thenReturn(List.of(e));
+        doThrow(new ObjectOptimisticLockingFailureException(Enrollment.class, 42L)).doNothing()
+                .when(enrollmentRepository).flush();
+
+        GradeImportResultDTO result = gradeImportService.importGrades(3L, csv("enrollmentId,grade\n42,7\n"));
+
+        assertThat(result.updated).isEqualTo(1);
+        assertThat(result.rejected).isZero();
+        verify(enrollmentRepository, times(2)).findForGradeImportByIds(3L, List.of(42L));
+        verify(gradeSummaryService, times(1)).gradesChanged(eq(subject), anyList());
+    }
+
+    @Test
+    void importGrades_chunkStillConflicting_shouldRejectItsRowsAndContinue() throws Exception {
+        StringBuilder content = new StringBuilder("enrollmentId,grade\n");
+        for (int i = 1; i <= GradeImportService.CHUNK_SIZE + 1; i++) {
+            content.append(i).append(",5\n");
+        }
+        Enrollment last = enrollment((long) GradeImportService.CHUNK_SIZE + 1, "999");
+        when(enrollmentRepository.findForGradeImportByIds(eq(3L), anyList())).thenAnswer(invocation ->
+                invocation.<List<Long>>getArgument(1).contains(last.getId()) ? List.of(last) : List.of());
+        // the first chunk conflicts on all 3 attempts, the second one commits
+        doThrow(new ObjectOptimisticLockingFailureException(Enrollment.class, 1L))
+                .doThrow(new ObjectOptimisticLockingFailureException(Enrollment.class, 1L))
+                .doThrow(new ObjectOptimisticLockingFailureException(Enrollment.class, 1L))
+                .doNothing()
+                .when(enrollmentRepository).flush();
+
+        GradeImportResultDTO result = gradeImportService.importGrades(3L, csv(content.toString()));
+
+        assertThat(result.updated).isEqualTo(1);
+        assertThat(result.rejected).isEqualTo(GradeImportService.CHUNK_SIZE);
+        assertThat(result.rejections).allSatisfy(r -> assertThat(r.reason).contains("linha não aplicada"));
+        assertThat(last.getGrade()).isEqualTo(5.0);
+    }
+
+    @Test
+    void importGrades_byEnrollmentIdWithSemicolon_shouldAcceptDecimalComma() throws Exception {
+        Enrollment e = enrollment(42L, "999");
+        when(enrollmentRepository.findForGradeImportByIds(3L, List.of(42L))).thenReturn(List.of(e));
+
+        GradeImportResultDTO result = gradeImportService.importGrades(3L, csv("matricula;nota\n\"42\";6,5\n"));
+
+        assertThat(e.getGrade()).isEqualTo(6.5);
+        assertThat(result.updated).isEqualTo(1);
+        assertThat(result.rejected).isZero();
+    }
+
+    @Test
+    void importGrades_largeFile_shouldApplyInChunks() throws Exception {
+        StringBuilder content = new StringBuilder("enrollmentId,grade\n");
+        for (int i = 1; i <= GradeImportService.CHUNK_SIZE + 1; i++) {
+            content.append(i).append(",5\n");
+        }
+        when(enrollmentRepository.findForGradeImportByIds(eq(3L), anyList())).thenReturn(List.of());
+
+        GradeImportResultDTO result = gradeImportService.importGrades(3L, csv(content.toString()));
+
+        assertThat(result.rejected).isEqualTo(GradeImportService.CHUNK_SIZE + 1);
+        verify(enrollmentRepository, times(2)).findForGradeImportByIds(eq(3L), anyList());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void importGrades_invalidHeader_shouldThrow() {
+        assertThatThrownBy(() -> gradeImportService.importGrades(3L, csv("nome,grade\nx,1\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Cabeçalho inválido");
+        verifyNoInteractions(enrollmentRepository);
+    }
+}
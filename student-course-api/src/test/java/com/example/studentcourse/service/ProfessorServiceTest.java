@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
@@ -27,6 +28,9 @@ class ProfessorServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ProfessorUserDetailsService userDetailsService;
+
     @InjectMocks
     private ProfessorService professorService;
 
@@ -39,7 +43,6 @@ class ProfessorServiceTest {
 
     @Test
     void create_success_shouldEncodePasswordAndSave() {
-        when(professorRepository.findByUsername("user1")).thenReturn(Optional.empty());
         when(passwordEncoder.encode("plainpwd")).thenReturn("encodedPwd");
         Professor saved = new Professor(11L, "user1", "encodedPwd", "Nome");
         when(professorRepository.save(any(Professor.class))).thenReturn(saved);
@@ -51,15 +54,18 @@ class ProfessorServiceTest {
         // ensure password was encoded before saving
         verify(passwordEncoder).encode("plainpwd");
         verify(professorRepository).save(Mockito.argThat(p -> "encodedPwd".equals(p.getPassword())));
+        // drops a cached "not found" left by earlier login attempts
+        verify(userDetailsService).evict("user1");
     }
 
     @Test
-    void create_whenUsernameExists_shouldThrow() {
-        when(professorRepository.findByUsername("user1")).thenReturn(Optional.of(new Professor()));
+    void create_whenUsernameExists_shouldPropagateConstraintViolation() {
+        when(passwordEncoder.encode("plainpwd")).thenReturn("encodedPwd");
+        when(professorRepository.save(any(Professor.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_professor_username"));
         assertThatThrownBy(() -> professorService.create(input))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("Usuário já existe");
-        verify(professorRepository, never()).save(any());
+                .isInstanceOf(DataIntegrityViolationException.class);
+        verify(professorRepository, never()).findByUsername(any());
     }
 
     @Test
@@ -80,6 +86,8 @@ class ProfessorServiceTest {
         // password should have been encoded before saving
         verify(passwordEncoder).encode("newpass");
         verify(professorRepository).save(existing);
+        // old and new usernames must leave the authentication cache
+        verify(userDetailsService).evict("old", "newuser");
     }
 
     @Test
@@ -131,6 +139,7 @@ class ProfessorServiceTest {
         professorService.delete(40L);
 
         verify(professorRepository).delete(existing);
+        verify(userDetailsService).evict("del");
     }
 
     @Test
@@ -0,0 +1,112 @@
+package com.example.studentcourse.service;
+
+import com.example.studentcourse.model.Professor;
+import com.example.studentcourse.repository.ProfessorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the cached UserDetailsService.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProfessorUserDetailsServiceTest {
+
+    @Mock
+    private ProfessorRepository professorRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProfessorUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new ProfessorUserDetailsService(professorRepository, meterRegistry, 100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void loadUserByUsername_secondCall_shouldBeServedFromCache() {
+        when(professorRepository.findByUsername("prof")).thenReturn(Optional.of(new Professor(1L, "prof", "pwd", "Prof")));
+
+        UserDetails first = userDetailsService.loadUserByUsername("prof");
+        UserDetails second = userDetailsService.loadUserByUsername("prof");
+
+        assertThat(second.getUsername()).isEqualTo("prof");
+        assertThat(second.getPassword()).isEqualTo("pwd");
+        assertThat(second).isNotSameAs(first);
+        verify(professorRepository, times(1)).findByUsername("prof");
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void loadUserByUsername_erasedCredentials_shouldNotLeakIntoCache() {
+        when(professorRepository.findByUsername("prof")).thenReturn(Optional.of(new Professor(1L, "prof", "pwd", "Prof")));
+
+        ((User) userDetailsService.loadUserByUsername("prof")).eraseCredentials();
+
+        assertThat(userDetailsService.loadUserByUsername("prof").getPassword()).isEqualTo("pwd");
+    }
+
+    @Test
+    void evict_shouldForceReload() {
+        when(professorRepository.findByUsername("prof"))
+                .thenReturn(Optional.of(new Professor(1L, "prof", "old", "Prof")))
+                .thenReturn(Optional.of(new Professor(1L, "prof", "new", "Prof")));
+
+        userDetailsService.loadUserByUsername("prof");
+        userDetailsService.evict("prof");
+
+        assertThat(userDetailsService.loadUserByUsername("prof").getPassword()).isEqualTo("new");
+        verify(professorRepository, times(2)).findByUsername("prof");
+    }
+
+    @Test
+    void loadUserByUsername_unknown_shouldThrowAndCacheTheMiss() {
+        when(professorRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        verify(professorRepository, times(1)).findByUsername("ghost");
+    }
+
+    @Test
+    void evict_afterProfessorCreated_shouldDropTheCachedMiss() {
+        when(professorRepository.findByUsername("newbie"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new Professor(2L, "newbie", "pwd", "New")));
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("newbie"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        userDetailsService.evict("newbie");
+
+        assertThat(userDetailsService.loadUserByUsername("newbie").getPassword()).isEqualTo("pwd");
+    }
+
+    @Test
+    void loadUserByUsername_cachedMiss_shouldExpireAfterTheNegativeTtl() throws Exception {
+        userDetailsService = new ProfessorUserDetailsService(professorRepository, meterRegistry, 100, Duration.ofMinutes(5), Duration.ofMillis(50));
+        when(professorRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+        Thread.sleep(100);
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername("ghost"))
+                .isInstanceOf(UsernameNotFoundException.class);
+
+        verify(professorRepository, times(2)).findByUsername("ghost");
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.studentcourse.service;
 
+import com.example.studentcourse.dto.KeysetPage;
+import com.example.studentcourse.dto.StudentListItemDTO;
+import com.example.studentcourse.dto.TranscriptDTO;
+import com.example.studentcourse.dto.TranscriptRowDTO;
 import com.example.studentcourse.model.Student;
+import com.example.studentcourse.model.Subject;
 import com.example.studentcourse.repository.StudentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,7 +13,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,19 +34,24 @@ class StudentServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
+    // mocked transaction manager: the retry runs the block directly, with no pause between attempts
+    @Spy
+    private OptimisticRetry optimisticRetry = new OptimisticRetry(mock(PlatformTransactionManager.class), 3, Duration.ZERO);
+
     @InjectMocks
     private StudentService studentService;
 
     private Student sample;
+    private StudentListItemDTO sampleItem;
 
     @BeforeEach
     void setUp() {
         sample = new Student(1L, "João", "11122233344", "joao@ex.com", "1111", "Rua A");
+        sampleItem = new StudentListItemDTO(1L, "João", "11122233344", "joao@ex.com", null, null);
     }
 
     @Test
     void create_success_shouldSaveAndReturn() {
-        when(studentRepository.findByCpf(eq(sample.getCpf()))).thenReturn(Optional.empty());
         when(studentRepository.save(any(Student.class))).thenReturn(sample);
 
         Student created = studentService.create(new Student(null, sample.getNome(), sample.getCpf(), sample.getEmail(), sample.getTelefone(), sample.getEndereco()));
@@ -47,23 +61,46 @@ class StudentServiceTest {
     }
 
     @Test
-    void create_duplicateCpf_shouldThrow() {
-        when(studentRepository.findByCpf(eq(sample.getCpf()))).thenReturn(Optional.of(sample));
+    void create_duplicateCpf_shouldPropagateConstraintViolation() {
+        when(studentRepository.save(any(Student.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_students_cpf"));
 
         Student toCreate = new Student(null, "X", sample.getCpf(), "x@ex.com", null, null);
         assertThatThrownBy(() -> studentService.create(toCreate))
-                .isInstanceOf(IllegalStateException.class)
-                .hasMessageContaining("CPF já cadastrado");
+                .isInstanceOf(DataIntegrityViolationException.class);
 
-        verify(studentRepository, never()).save(any());
+        // single round trip: no lookup by CPF before the insert
+        verify(studentRepository, never()).findByCpf(any());
     }
 
     @Test
     void findAll_shouldReturnList() {
-        when(studentRepository.findAll()).thenReturn(List.of(sample));
-        List<Student> all = studentService.findAll();
-        assertThat(all).hasSize(1).contains(sample);
-        verify(studentRepository).findAll();
+        when(studentRepository.findAllListItems()).thenReturn(List.of(sampleItem));
+        List<StudentListItemDTO> all = studentService.findAll();
+        assertThat(all).hasSize(1).contains(sampleItem);
+        verify(studentRepository).findAllListItems();
+        verify(studentRepository, never()).findAll();
+    }
+
+    @Test
+    void findPage_fullPage_shouldReturnNextCursor() {
+        StudentListItemDTO second = new StudentListItemDTO(2L, "Maria", "55566677788", "maria@ex.com", null, null);
+        when(studentRepository.findListItemsAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(sampleItem, second));
+
+        KeysetPage<StudentListItemDTO> page = studentService.findPage(null, 2);
+
+        assertThat(page.items).containsExactly(sampleItem, second);
+        assertThat(page.nextCursor).isEqualTo(2L);
+    }
+
+    @Test
+    void findPage_lastPage_shouldHaveNoCursorAndClampLimit() {
+        when(studentRepository.findListItemsAfter(1L, PageRequest.of(0, KeysetPage.MAX_LIMIT))).thenReturn(List.of(sampleItem));
+
+        KeysetPage<StudentListItemDTO> page = studentService.findPage(1L, 100_000);
+
+        assertThat(page.items).containsExactly(sampleItem);
+        assertThat(page.nextCursor).isNull();
     }
 
     @Test
@@ -130,4 +167,61 @@ class StudentServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Aluno não encontrado");
     }
+
+    @Test
+    void getTranscript_shouldClassifyEachSubjectAndAverageGradedOnes() {
+        when(studentRepository.findTranscriptRows(1L)).thenReturn(List.of(
+                new TranscriptRowDTO(1L, "João", "11122233344", "joao@ex.com", 10L, 2L, "FIS101", "Física", null, 8.0),
+                new TranscriptRowDTO(1L, "João", "11122233344", "joao@ex.com", 11L, 3L, "MAT101", "Cálculo", 5.0, 4.0),
+                new TranscriptRowDTO(1L, "João", "11122233344", "joao@ex.com", 12L, 4L, "QUI101", "Química", null, null)));
+
+        TranscriptDTO transcript = studentService.getTranscript(1L);
+
+        assertThat(transcript.nome).isEqualTo("João");
+        assertThat(transcript.subjects).extracting(e -> e.status).containsExactly(
+                TranscriptDTO.Status.APPROVED, TranscriptDTO.Status.FAILED, TranscriptDTO.Status.PENDING);
+        assertThat(transcript.subjects.get(0).passingGrade).isEqualTo(Subject.DEFAULT_PASSING_GRADE);
+        assertThat(transcript.average).isEqualTo(6.0);
+        assertThat(transcript.approved).isEqualTo(1);
+        assertThat(transcript.failed).isEqualTo(1);
+        assertThat(transcript.pending).isEqualTo(1);
+        verify(studentRepository, never()).findById(any());
+    }
+
+    @Test
+    void getTranscript_studentWithoutEnrollments_shouldReturnEmptyList() {
+        when(studentRepository.findTranscriptRows(1L)).thenReturn(List.of(
+                new TranscriptRowDTO(1L, "João", "11122233344", "joao@ex.com", null, null, null, null, null, null)));
+
+        TranscriptDTO transcript = studentService.getTranscript(1L);
+
+        assertThat(transcript.subjects).isEmpty();
+        assertThat(transcript.average).isNull();
+    }
+
+    @Test
+    void getTranscript_notFound_shouldThrow() {
+        when(studentRepository.findTranscriptRows(99L)).thenReturn(List.of());
+        assertThatThrownBy(() -> studentService.getTranscript(99L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Aluno não encontrado");
+    }
+
+    @Test
+    void search_shouldNormalizeTermAndClampPage() {
+        when(studentRepository.search("joao 50%", 0, 20)).thenReturn(List.of(sampleItem));
+
+        List<StudentListItemDTO> found = studentService.search("  JOÃO   50% ", -1, 20);
+
+        assertThat(found).containsExactly(sampleItem);
+        verify(studentRepository).search("joao 50%", 0, 20);
+    }
+
+    @Test
+    void search_blankTerm_shouldThrow() {
+        assertThatThrownBy(() -> studentService.search("   ", 0, 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Informe o termo de busca");
+        verifyNoInteractions(studentRepository);
+    }
 }
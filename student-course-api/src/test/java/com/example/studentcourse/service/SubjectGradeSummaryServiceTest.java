@@ -0,0 +1,127 @@
+package com.example.studentcourse.service;
+
+import com.example.studentcourse.dto.SummaryRebuildResultDTO;
+import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.model.SubjectGradeSummary;
+import com.example.studentcourse.repository.SubjectGradeSummaryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the incrementally maintained subject grade summary.
+ */
+@ExtendWith(MockitoExtension.class)
+class SubjectGradeSummaryServiceTest {
+
+    @Mock
+    private SubjectGradeSummaryRepository summaryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SubjectGradeSummaryService summaryService;
+    private Subject subject;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        summaryService = new SubjectGradeSummaryService(summaryRepository, meterRegistry, transactionManager);
+        subject = new Subject(4L, "Química", "QUI");
+        subject.setPassingGrade(6.0);
+    }
+
+    @Test
+    void gradesChanged_shouldSendOneNetDeltaForTheWholeBatch() {
+        when(summaryRepository.applyDelta(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyDouble())).thenReturn(1);
+
+        // new grade 8 (approved), 5 -> 7 (failed to approved), 9 -> 3 (approved to failed)
+        summaryService.gradesChanged(subject, List.of(
+                new SubjectGradeSummaryService.GradeChange(null, 8.0),
+                new SubjectGradeSummaryService.GradeChange(5.0, 7.0),
+                new SubjectGradeSummaryService.GradeChange(9.0, 3.0)));
+
+        verify(summaryRepository).applyDelta(4L, 0L, 1L, 1L, 0L, 4.0);
+    }
+
+    @Test
+    void gradeChanged_sameGrade_shouldNotTouchTheSummary() {
+        summaryService.gradeChanged(subject, 7.0, 7.0);
+
+        verifyNoInteractions(summaryRepository);
+    }
+
+    @Test
+    void unenrolled_shouldRemoveTheEnrollmentAndItsGrade() {
+        when(summaryRepository.applyDelta(anyLong(), anyLong(), anyLong(), anyLong(), anyLong(), anyDouble())).thenReturn(1);
+
+        summaryService.unenrolled(subject, 5.5);
+
+        verify(summaryRepository).applyDelta(4L, -1L, -1L, 0L, -1L, -5.5);
+    }
+
+    @Test
+    void enrolled_withoutSummaryRow_shouldRecomputeFromEnrollments() {
+        SubjectGradeSummary recomputed = new SubjectGradeSummary(4L, 1L, 0L, 0L, 0L, null);
+        when(summaryRepository.applyDelta(4L, 1L, 0L, 0L, 0L, 0.0)).thenReturn(0);
+        when(summaryRepository.recompute(4L, Subject.DEFAULT_PASSING_GRADE)).thenReturn(Optional.of(recomputed));
+
+        summaryService.enrolled(subject, 1);
+
+        verify(summaryRepository).save(recomputed);
+    }
+
+    @Test
+    void rebuild_shouldLockTheRowBeforeRecountingAndUpdateItInPlace() {
+        SubjectGradeSummary stored = new SubjectGradeSummary(4L, 5L, 4L, 3L, 1L, 28.0);
+        when(summaryRepository.findByIdForUpdate(4L)).thenReturn(Optional.of(stored));
+        when(summaryRepository.recompute(4L, Subject.DEFAULT_PASSING_GRADE))
+                .thenReturn(Optional.of(new SubjectGradeSummary(4L, 6L, 5L, 4L, 1L, 36.0)));
+
+        summaryService.rebuild(4L);
+
+        InOrder order = inOrder(summaryRepository);
+        order.verify(summaryRepository).findByIdForUpdate(4L);
+        order.verify(summaryRepository).recompute(4L, Subject.DEFAULT_PASSING_GRADE);
+        assertThat(stored.getEnrolled()).isEqualTo(6L);
+        assertThat(stored.getGradeSum()).isEqualTo(36.0);
+        verify(summaryRepository, never()).save(any());
+    }
+
+    @Test
+    void rebuildAll_shouldCorrectOnlyDivergentSummariesOneSubjectPerTransaction() {
+        SubjectGradeSummary inSync = new SubjectGradeSummary(1L, 3L, 2L, 1L, 1L, 13.0);
+        SubjectGradeSummary drifted = new SubjectGradeSummary(2L, 5L, 4L, 3L, 1L, 28.0);
+        SubjectGradeSummary missing = new SubjectGradeSummary(3L, 0L, 0L, 0L, 0L, null);
+        when(summaryRepository.findAllSubjectIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(summaryRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(new SubjectGradeSummary(1L, 3L, 2L, 1L, 1L, 13.0)));
+        when(summaryRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(drifted));
+        when(summaryRepository.findByIdForUpdate(3L)).thenReturn(Optional.empty());
+        when(summaryRepository.recompute(1L, Subject.DEFAULT_PASSING_GRADE)).thenReturn(Optional.of(inSync));
+        when(summaryRepository.recompute(2L, Subject.DEFAULT_PASSING_GRADE))
+                .thenReturn(Optional.of(new SubjectGradeSummary(2L, 5L, 5L, 4L, 1L, 36.0)));
+        when(summaryRepository.recompute(3L, Subject.DEFAULT_PASSING_GRADE)).thenReturn(Optional.of(missing));
+
+        SummaryRebuildResultDTO result = summaryService.rebuildAll();
+
+        assertThat(result.subjects).isEqualTo(3);
+        assertThat(result.corrected).isEqualTo(2);
+        assertThat(drifted.getGraded()).isEqualTo(5L);
+        verify(summaryRepository).save(missing);
+        verify(transactionManager, times(3)).commit(any());
+        assertThat(meterRegistry.counter("app.grade-summary.corrections").count()).isEqualTo(2.0);
+    }
+}
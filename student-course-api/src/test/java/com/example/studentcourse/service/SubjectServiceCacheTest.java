@@ -0,0 +1,102 @@
+package com.example.studentcourse.service;
+
+import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.repository.SubjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Read-through caching of SubjectService: repeated reads hit the repository once and
+ * writes invalidate the cached entries. Warm-up is disabled so the repository mock only
+ * sees the calls made by each test.
+ */
+@SpringBootTest(properties = "app.cache.subjects.warm-up=false")
+class SubjectServiceCacheTest {
+
+    @Autowired
+    private SubjectService subjectService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private SubjectRepository subjectRepository;
+
+    // the mocked repository has no rows for the summary foreign key to point at
+    @MockBean
+    private SubjectGradeSummaryService gradeSummaryService;
+
+    private Subject subject;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        subject = new Subject("Cálculo", "MAT101", 6.0);
+        subject.setId(1L);
+        when(subjectRepository.findById(1L)).thenReturn(Optional.of(subject));
+        when(subjectRepository.findByCodigo("MAT101")).thenReturn(Optional.of(subject));
+        when(subjectRepository.findAll()).thenReturn(List.of(subject));
+        when(subjectRepository.save(any(Subject.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("findById / findByCodigo / findAll: second call is served from the cache")
+    void reads_areCached() {
+        assertThat(subjectService.findById(1L)).isSameAs(subject);
+        assertThat(subjectService.findById(1L)).isSameAs(subject);
+        assertThat(subjectService.findByCodigo("MAT101")).isSameAs(subject);
+        assertThat(subjectService.findByCodigo("MAT101")).isSameAs(subject);
+        assertThat(subjectService.findAll()).containsExactly(subject);
+        assertThat(subjectService.findAll()).containsExactly(subject);
+
+        verify(subjectRepository, times(1)).findById(1L);
+        verify(subjectRepository, times(1)).findByCodigo("MAT101");
+        verify(subjectRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("update evicts by-id, by-codigo and catalog entries")
+    void update_evictsCaches() {
+        subjectService.findById(1L);
+        subjectService.findByCodigo("MAT101");
+        subjectService.findAll();
+
+        subjectService.update(1L, new Subject("Cálculo I", "MAT101", 6.0));
+
+        subjectService.findById(1L);
+        subjectService.findByCodigo("MAT101");
+        subjectService.findAll();
+
+        // update() reads through the repository itself, then one more miss after the evict
+        verify(subjectRepository, times(3)).findById(1L);
+        verify(subjectRepository, times(2)).findByCodigo("MAT101");
+        verify(subjectRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("create evicts only the catalog")
+    void create_evictsCatalog() {
+        subjectService.findAll();
+        subjectService.findById(1L);
+
+        subjectService.create(new Subject("Física", "FIS101", null));
+
+        subjectService.findAll();
+        subjectService.findById(1L);
+
+        verify(subjectRepository, times(2)).findAll();
+        verify(subjectRepository, times(1)).findById(1L);
+    }
+}
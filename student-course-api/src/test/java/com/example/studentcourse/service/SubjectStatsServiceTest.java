@@ -0,0 +1,75 @@
+package com.example.studentcourse.service;
+
+import com.example.studentcourse.dto.GradeAggregateDTO;
+import com.example.studentcourse.dto.GradeBucketDTO;
+import com.example.studentcourse.dto.SubjectStatsDTO;
+import com.example.studentcourse.model.Subject;
+import com.example.studentcourse.repository.EnrollmentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SubjectStatsService.
+ */
+@ExtendWith(MockitoExtension.class)
+class SubjectStatsServiceTest {
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private SubjectService subjectService;
+
+    @InjectMocks
+    private SubjectStatsService subjectStatsService;
+
+    @Test
+    void getStats_shouldDeriveStdDevAndFillHistogram() {
+        Subject subject = new Subject(1L, "Física", "FIS");
+        subject.setPassingGrade(6.0);
+        when(subjectService.findById(1L)).thenReturn(subject);
+        // grades 4, 6 and 10 -> mean 6.666..., sum of squares 152
+        when(enrollmentRepository.aggregateGrades(1L, 6.0))
+                .thenReturn(new GradeAggregateDTO(4L, 3L, 20.0 / 3, 4.0, 10.0, 152.0, 2L, 1L));
+        when(enrollmentRepository.gradeHistogram(1L)).thenReturn(List.of(
+                new GradeBucketDTO(4, 1L), new GradeBucketDTO(6, 1L), new GradeBucketDTO(10, 1L)));
+
+        SubjectStatsDTO stats = subjectStatsService.getStats(1L);
+
+        assertThat(stats.passingGrade).isEqualTo(6.0);
+        assertThat(stats.enrolled).isEqualTo(4);
+        assertThat(stats.graded).isEqualTo(3);
+        assertThat(stats.approved).isEqualTo(2);
+        assertThat(stats.failed).isEqualTo(1);
+        assertThat(stats.standardDeviation).isCloseTo(Math.sqrt(56.0 / 9), within(1e-9));
+        assertThat(stats.histogram).hasSize(10);
+        assertThat(stats.histogram.get(9).count).isEqualTo(1);
+        assertThat(stats.histogram.get(9).to).isEqualTo(10);
+        assertThat(stats.histogram).extracting(b -> b.count).containsExactly(0L, 0L, 0L, 0L, 1L, 0L, 1L, 0L, 0L, 1L);
+    }
+
+    @Test
+    void getStats_withoutGrades_shouldUseDefaultPassingGradeAndLeaveAggregatesNull() {
+        Subject subject = new Subject(2L, "Química", "QUI");
+        when(subjectService.findById(2L)).thenReturn(subject);
+        when(enrollmentRepository.aggregateGrades(2L, Subject.DEFAULT_PASSING_GRADE))
+                .thenReturn(new GradeAggregateDTO(5L, 0L, null, null, null, null, null, null));
+        when(enrollmentRepository.gradeHistogram(2L)).thenReturn(List.of());
+
+        SubjectStatsDTO stats = subjectStatsService.getStats(2L);
+
+        assertThat(stats.enrolled).isEqualTo(5);
+        assertThat(stats.mean).isNull();
+        assertThat(stats.standardDeviation).isNull();
+        assertThat(stats.approved).isZero();
+        assertThat(stats.histogram).allMatch(b -> b.count == 0);
+    }
+}